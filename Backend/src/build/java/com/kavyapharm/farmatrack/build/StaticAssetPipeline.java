@@ -0,0 +1,243 @@
+package com.kavyapharm.farmatrack.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// Build step, launched by Maven as a single source file (JDK only, not part of the application jar) at
+// process-classes over the frontend copied to target/classes/static (see pom.xml):
+//  - rewrites local asset references in HTML and CSS to "name-<md5>.ext", the form WebConfig's
+//    VersionResourceResolver serves, so those URLs can be cached forever and change whenever the file does;
+//  - writes a .gz and a .br next to every compressible text asset, which EncodedResourceResolver serves when
+//    accepted. The JDK has no brotli encoder, so .br comes from the `brotli` CLI when it is on the PATH (or named
+//    by -Dstatic-assets.brotli); without it the build still passes with gzip only.
+// Idempotent: references that already carry a fingerprint are re-derived from the current file.
+public final class StaticAssetPipeline {
+
+    private static final Set<String> FINGERPRINTED = Set.of(
+            "js", "css", "png", "jpg", "jpeg", "gif", "svg", "ico", "webp", "woff", "woff2", "ttf");
+    private static final Set<String> COMPRESSIBLE = Set.of("html", "js", "css", "svg", "json", "txt", "map");
+    private static final int MIN_COMPRESS_BYTES = 1024;
+
+    private static final Pattern HTML_REF = Pattern.compile("(\\b(?:src|href)\\s*=\\s*[\"'])([^\"'?#]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CSS_REF = Pattern.compile("(url\\(\\s*[\"']?)([^\"')?#]+)");
+    private static final Pattern FINGERPRINT = Pattern.compile("-[0-9a-f]{32}(?=\\.[^./]+$)");
+
+    private StaticAssetPipeline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path root = Paths.get(args.length > 0 ? args[0] : "target/classes/static");
+        if (!Files.isDirectory(root)) {
+            System.out.println("[static-assets] nothing to do, " + root + " does not exist");
+            return;
+        }
+        Path brotli = findBrotli();
+        if (brotli == null) {
+            System.out.println("[static-assets] brotli not found on the PATH, writing .gz only");
+        }
+        Summary summary = process(root, brotli);
+        System.out.println("[static-assets] " + summary.rewrittenReferences() + " references fingerprinted, "
+                + summary.compressedFiles() + " files gzipped, " + summary.brotliFiles() + " brotli-compressed under " + root);
+    }
+
+    record Summary(int rewrittenReferences, int compressedFiles, int brotliFiles) {
+    }
+
+    static Summary process(Path staticRoot) throws IOException {
+        return process(staticRoot, findBrotli());
+    }
+
+    // brotli is the encoder executable, or null to skip .br output.
+    static Summary process(Path staticRoot, Path brotli) throws IOException {
+        Path root = staticRoot.toAbsolutePath().normalize();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(p -> !p.toString().endsWith(".gz") && !p.toString().endsWith(".br"))
+                    .sorted()
+                    .toList();
+        }
+        int rewritten = 0;
+        // Stylesheets first: a stylesheet's fingerprint has to cover its own rewritten url()s.
+        for (Path file : files) {
+            if (extension(file).equals("css")) {
+                rewritten += rewrite(root, file, CSS_REF);
+            }
+        }
+        for (Path file : files) {
+            if (extension(file).equals("html")) {
+                rewritten += rewrite(root, file, HTML_REF);
+            }
+        }
+        int compressed = 0;
+        int brotliCompressed = 0;
+        for (Path file : files) {
+            if (!COMPRESSIBLE.contains(extension(file))) {
+                continue;
+            }
+            if (gzip(file)) {
+                compressed++;
+            }
+            if (brotli(file, brotli)) {
+                brotliCompressed++;
+            }
+        }
+        return new Summary(rewritten, compressed, brotliCompressed);
+    }
+
+    private static int rewrite(Path root, Path file, Pattern references) throws IOException {
+        String content = Files.readString(file, StandardCharsets.UTF_8);
+        Matcher matcher = references.matcher(content);
+        StringBuilder result = new StringBuilder(content.length());
+        int count = 0;
+        while (matcher.find()) {
+            String replacement = fingerprint(root, file, matcher.group(2).trim());
+            if (replacement != null && !replacement.equals(matcher.group(2))) {
+                count++;
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(
+                    matcher.group(1) + (replacement == null ? matcher.group(2) : replacement)));
+        }
+        matcher.appendTail(result);
+        if (count > 0) {
+            Files.writeString(file, result, StandardCharsets.UTF_8);
+        }
+        return count;
+    }
+
+    // Returns the reference with the target's content hash spliced in, or null if it is not a local asset.
+    private static String fingerprint(Path root, Path from, String reference) throws IOException {
+        if (reference.isEmpty() || reference.startsWith("//") || reference.contains(":")
+                || !FINGERPRINTED.contains(extension(reference))) {
+            return null;
+        }
+        String plain = FINGERPRINT.matcher(reference).replaceFirst("");
+        Path target;
+        try {
+            target = (plain.startsWith("/") ? root.resolve(plain.substring(1)) : from.getParent().resolve(plain)).normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (!target.startsWith(root) || !Files.isRegularFile(target)) {
+            return null;
+        }
+        String hash = md5Hex(Files.readAllBytes(target));
+        int dot = plain.lastIndexOf('.');
+        return plain.substring(0, dot) + "-" + hash + plain.substring(dot);
+    }
+
+    // Keeps the .gz only when it actually saves bytes; a stale one from an earlier build is removed.
+    private static boolean gzip(Path file) throws IOException {
+        Path gz = file.resolveSibling(file.getFileName() + ".gz");
+        byte[] content = Files.readAllBytes(file);
+        if (content.length >= MIN_COMPRESS_BYTES) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 3);
+            try (OutputStream out = new GZIPOutputStream(buffer) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                out.write(content);
+            }
+            if (buffer.size() < content.length) {
+                Files.write(gz, buffer.toByteArray());
+                return true;
+            }
+        }
+        Files.deleteIfExists(gz);
+        return false;
+    }
+
+    // Same rule as gzip; with no encoder any .br from an earlier build is removed rather than left stale.
+    private static boolean brotli(Path file, Path brotli) throws IOException {
+        Path br = file.resolveSibling(file.getFileName() + ".br");
+        long size = Files.size(file);
+        if (brotli != null && size >= MIN_COMPRESS_BYTES) {
+            byte[] encoded = run(brotli, file);
+            if (encoded.length < size) {
+                Files.write(br, encoded);
+                return true;
+            }
+        }
+        Files.deleteIfExists(br);
+        return false;
+    }
+
+    private static byte[] run(Path brotli, Path file) throws IOException {
+        Process process = new ProcessBuilder(brotli.toString(), "-q", "11", "-c", file.toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        byte[] output;
+        try (InputStream in = process.getInputStream()) {
+            output = in.readAllBytes();
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException("brotli failed on " + file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted compressing " + file, e);
+        }
+        return output;
+    }
+
+    private static Path findBrotli() {
+        String configured = System.getProperty("static-assets.brotli");
+        if (configured != null) {
+            return configured.isBlank() ? null : Paths.get(configured);
+        }
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+        for (String dir : path.split(File.pathSeparator)) {
+            for (String name : List.of("brotli", "brotli.exe")) {
+                Path candidate = Paths.get(dir, name);
+                if (Files.isExecutable(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String md5Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String extension(Path file) {
+        return extension(file.getFileName().toString());
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        if (dot < name.lastIndexOf('/')) {
+            return "";
+        }
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,99 @@
+package com.kavyapharm.farmatrack.benchmark;
+
+import com.kavyapharm.farmatrack.FarmaTrackBackendApplication;
+import com.kavyapharm.farmatrack.common.FileStorageService;
+import com.kavyapharm.farmatrack.common.StoredFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The same receipt fetched over HTTP from the embedded server: once as a flat file through the static resource
+// handler (how every upload was served before), once through the content-addressed attachment endpoint.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class AttachmentServingBenchmark {
+
+    @Param({"32768", "2097152"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private Path uploadsDir;
+    private HttpClient client;
+    private HttpRequest resourceHandler;
+    private HttpRequest attachmentEndpoint;
+    private HttpRequest attachmentRevalidation;
+
+    @Setup
+    public void setUp() throws Exception {
+        uploadsDir = Files.createTempDirectory("attachment-benchmark");
+        context = new SpringApplicationBuilder(FarmaTrackBackendApplication.class)
+                .run("--server.port=0", "--management.server.port=0", "--logging.level.root=WARN",
+                        "--uploads.dir=" + uploadsDir, "--uploads.max-size=" + size,
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/assets/uploads/";
+
+        byte[] receipt = new byte[size];
+        new Random(size).nextBytes(receipt);
+        StoredFile stored = context.getBean(FileStorageService.class)
+                .store(new ByteArrayInputStream(receipt), "receipt.jpg", receipt.length);
+        Files.write(uploadsDir.resolve("legacy-receipt.jpg"), receipt);
+
+        client = HttpClient.newHttpClient();
+        resourceHandler = HttpRequest.newBuilder(URI.create(base + "legacy-receipt.jpg")).build();
+        attachmentEndpoint = HttpRequest.newBuilder(URI.create(base + stored.filename())).build();
+        attachmentRevalidation = HttpRequest.newBuilder(URI.create(base + stored.filename()))
+                .header("If-None-Match", "\"" + stored.sha256() + "\"").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int resourceHandler() throws Exception {
+        return fetch(resourceHandler);
+    }
+
+    @Benchmark
+    public int attachmentEndpoint() throws Exception {
+        return fetch(attachmentEndpoint);
+    }
+
+    @Benchmark
+    public int attachmentRevalidation() throws Exception {
+        return fetch(attachmentRevalidation);
+    }
+
+    private int fetch(HttpRequest request) throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.statusCode();
+    }
+}
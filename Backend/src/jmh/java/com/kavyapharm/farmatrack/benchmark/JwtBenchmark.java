@@ -0,0 +1,78 @@
+package com.kavyapharm.farmatrack.benchmark;
+
+import com.kavyapharm.farmatrack.security.JwtAuthenticationFilter;
+import com.kavyapharm.farmatrack.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Token issue/verify cost and the full JWT filter pass every authenticated request goes through.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private JwtAuthenticationFilter filter;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingJwtUtil = new JwtUtil(SECRET, 86_400_000L, 10_000);
+        uncachedJwtUtil = new JwtUtil(SECRET, 86_400_000L, 0);
+        userDetails = new User("asha.patil@kavyapharm.com", "unused", List.of());
+        filter = new JwtAuthenticationFilter(cachingJwtUtil, username -> userDetails);
+        token = cachingJwtUtil.generateToken(userDetails);
+        cachingJwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String extractUsernameCached() {
+        return cachingJwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extractUsernameUncached() {
+        return uncachedJwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Object authenticationFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dcrs");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
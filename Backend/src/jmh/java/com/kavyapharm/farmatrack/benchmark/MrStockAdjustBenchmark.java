@@ -0,0 +1,59 @@
+package com.kavyapharm.farmatrack.benchmark;
+
+import com.kavyapharm.farmatrack.FarmaTrackBackendApplication;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovementType;
+import com.kavyapharm.farmatrack.mrstock.service.MrStockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.kavyapharm.farmatrack.mrstock.service.StockOwner.CENTRAL;
+
+// Transactional stock adjustment through the real service and repository, against the H2 test database.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MrStockAdjustBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MrStockService mrStockService;
+
+    @Setup
+    public void setUp() {
+        // Picks up src/test/resources/application.properties (H2) from the test classpath; demo data seeds P001.
+        context = new SpringApplicationBuilder(FarmaTrackBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--app.demo-data.enabled=true", "--logging.level.root=WARN",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false");
+        mrStockService = context.getBean(MrStockService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void adjustStockOrThrow() {
+        mrStockService.adjustStockOrThrow(CENTRAL, "P001", -1, StockMovementType.ADJUSTMENT, null);
+        mrStockService.adjustStockOrThrow(CENTRAL, "P001", 1, StockMovementType.ADJUSTMENT, null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.kavyapharm.farmatrack.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kavyapharm.farmatrack.dcr.dto.DcrResponse;
+import com.kavyapharm.farmatrack.dcr.model.DcrReport;
+import com.kavyapharm.farmatrack.dcr.model.DcrSampleItem;
+import com.kavyapharm.farmatrack.dcr.service.DcrService;
+import com.kavyapharm.farmatrack.user.dto.UserResponse;
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
+import com.kavyapharm.farmatrack.user.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of turning entities into DTOs and DTOs into the JSON body.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    private DcrReport report;
+    private User user;
+    private DcrResponse dcrResponse;
+    private UserResponse userResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        report = new DcrReport();
+        report.setReportId(1L);
+        report.setVisitTitle("Quarterly follow-up");
+        report.setVisitType("Follow-up");
+        report.setDoctorId("D042");
+        report.setDoctorName("Dr. Mehta");
+        report.setClinicLocation("City Clinic, Pune");
+        report.setDateTime("2026-10-17T10:30");
+        report.setRating("4");
+        report.setRemarks("Discussed new syrup dosage; requested more samples next visit.");
+        report.setSubmissionTime("2026-10-17T11:02:13Z");
+        List<DcrSampleItem> samples = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            DcrSampleItem item = new DcrSampleItem();
+            item.setProductId("P00" + i);
+            item.setProductName("Product " + i);
+            item.setQuantity(i + 1);
+            samples.add(item);
+        }
+        report.setSamplesGiven(samples);
+
+        user = new User();
+        user.setId(7L);
+        user.setName("Asha Patil");
+        user.setEmail("asha.patil@kavyapharm.com");
+        user.setRole(UserRole.MR);
+        user.setPhone("9876543210");
+        user.setTerritory("Pune West");
+        user.setStatus(UserStatus.ACTIVE);
+        user.setLastLogin(LocalDate.of(2026, 10, 16));
+        user.setAssignedManager("Rahul Deshmukh");
+
+        dcrResponse = DcrService.toResponse(report);
+        userResponse = UserService.toResponse(user);
+        // Same defaults as the MVC message converter (java.time support, ISO dates).
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public DcrResponse dcrToResponse() {
+        return DcrService.toResponse(report);
+    }
+
+    @Benchmark
+    public UserResponse userToResponse() {
+        return UserService.toResponse(user);
+    }
+
+    @Benchmark
+    public byte[] dcrResponseToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(dcrResponse);
+    }
+
+    @Benchmark
+    public byte[] userResponseToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(userResponse);
+    }
+}
@@ -0,0 +1,63 @@
+package com.kavyapharm.farmatrack.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Collects per-endpoint latencies and status codes; thread-safe, reporting happens once at the end.
+final class LatencyRecorder {
+
+    private static final long[] BUCKET_UPPER_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, Long.MAX_VALUE};
+
+    private final String endpoint;
+    private final List<Long> latenciesMicros = new ArrayList<>();
+    private final Map<Integer, Integer> statusCounts = new TreeMap<>();
+
+    LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long latencyMicros, int status) {
+        latenciesMicros.add(latencyMicros);
+        statusCounts.merge(status, 1, Integer::sum);
+    }
+
+    synchronized String report(long wallMillis) {
+        List<Long> sorted = new ArrayList<>(latenciesMicros);
+        Collections.sort(sorted);
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-36s n=%-6d %8.1f req/s  p50=%7.1fms p90=%7.1fms p99=%7.1fms max=%7.1fms  status=%s%n",
+                endpoint, sorted.size(), sorted.size() * 1000.0 / Math.max(1, wallMillis),
+                percentile(sorted, 50) / 1000.0, percentile(sorted, 90) / 1000.0,
+                percentile(sorted, 99) / 1000.0, sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1) / 1000.0,
+                statusCounts));
+
+        int[] buckets = new int[BUCKET_UPPER_MS.length];
+        for (long micros : sorted) {
+            int b = 0;
+            while (b < BUCKET_UPPER_MS.length - 1 && micros > BUCKET_UPPER_MS[b] * 1000) {
+                b++;
+            }
+            buckets[b]++;
+        }
+        for (int b = 0; b < buckets.length; b++) {
+            if (buckets[b] == 0) {
+                continue;
+            }
+            String label = BUCKET_UPPER_MS[b] == Long.MAX_VALUE ? "> " + BUCKET_UPPER_MS[b - 1] + "ms" : "<= " + BUCKET_UPPER_MS[b] + "ms";
+            int bar = (int) Math.ceil(40.0 * buckets[b] / sorted.size());
+            out.append(String.format("    %-10s %6d %s%n", label, buckets[b], "#".repeat(bar)));
+        }
+        return out.toString();
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -0,0 +1,205 @@
+package com.kavyapharm.farmatrack.loadtest;
+
+import com.kavyapharm.farmatrack.FarmaTrackBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Simulates one field shift against -Dloadtest.baseUrl, or against an embedded app on the H2 test database.
+// Each MR signs up, logs in, checks in, fetches the daily plan, receives sample stock into their own partition,
+// submits DCRs with samples and files an expense with an uploaded receipt while managers poll dashboard reads.
+// Prints throughput, percentiles and a latency histogram per endpoint:
+//   mvn -Ploadtest verify -DskipTests -Dloadtest.args="-Dloadtest.mrs=500 -Dloadtest.concurrency=100"
+public final class ShiftLoadSimulation {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern URL = Pattern.compile("\"url\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final byte[] receipt;
+
+    private ShiftLoadSimulation(String baseUrl, int receiptKb) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        this.receipt = new byte[receiptKb * 1024];
+        ThreadLocalRandom.current().nextBytes(receipt);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int mrs = Integer.getInteger("loadtest.mrs", 200);
+        int managers = Integer.getInteger("loadtest.managers", 20);
+        int dcrsPerMr = Integer.getInteger("loadtest.dcrsPerMr", 3);
+        int managerReads = Integer.getInteger("loadtest.managerReads", 10);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 50);
+        int receiptKb = Integer.getInteger("loadtest.receiptKb", 64);
+        String baseUrl = System.getProperty("loadtest.baseUrl");
+
+        ConfigurableApplicationContext embedded = null;
+        if (baseUrl == null || baseUrl.isBlank()) {
+            embedded = new SpringApplicationBuilder(FarmaTrackBackendApplication.class)
+                    .run("--server.port=0", "--app.demo-data.enabled=true", "--logging.level.root=WARN",
+                            "--spring.jpa.properties.hibernate.generate_statistics=false");
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) embedded).getWebServer().getPort();
+        }
+
+        try {
+            ShiftLoadSimulation simulation = new ShiftLoadSimulation(baseUrl, receiptKb);
+            System.out.printf("Shift against %s: %d MRs x %d DCRs, %d managers x %d reads, concurrency %d%n",
+                    baseUrl, mrs, dcrsPerMr, managers, managerReads, concurrency);
+            simulation.run(mrs, managers, dcrsPerMr, managerReads, concurrency);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private void run(int mrs, int managers, int dcrsPerMr, int managerReads, int concurrency) throws Exception {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> work = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < mrs; i++) {
+            String email = "loadtest-mr-" + runId + "-" + i + "@example.com";
+            work.add(pool.submit(() -> {
+                mrShift(email, dcrsPerMr);
+                return null;
+            }));
+        }
+        for (int i = 0; i < managers; i++) {
+            String email = "loadtest-manager-" + runId + "-" + i + "@example.com";
+            work.add(pool.submit(() -> {
+                managerShift(email, managerReads);
+                return null;
+            }));
+        }
+        int failedSessions = 0;
+        for (Future<?> f : work) {
+            try {
+                f.get();
+            } catch (Exception e) {
+                failedSessions++;
+            }
+        }
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        pool.shutdown();
+
+        System.out.printf("%nCompleted in %.1fs, %d aborted sessions%n%n", wallMillis / 1000.0, failedSessions);
+        recorders.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> System.out.print(e.getValue().report(wallMillis)));
+    }
+
+    private void mrShift(String email, int dcrs) throws Exception {
+        String token = signupAndLogin(email, "MR");
+        send("POST /api/attendance/check-in", json("POST", "/api/attendance/check-in", token, ""));
+        send("GET /api/daily-plan/tasks", get("/api/daily-plan/tasks", token));
+        // Stock the MR's own partition first, so the DCRs below measure the per-MR write path
+        // instead of drawing every sample from the shared central rows.
+        for (String productId : List.of("P001", "P002")) {
+            send("POST /api/stock-received", json("POST", "/api/stock-received", token, """
+                    {"productId":"%s","quantity":%d,"date":"%s","notes":"load test"}
+                    """.formatted(productId, dcrs * 2, LocalDate.now())));
+        }
+        for (int i = 0; i < dcrs; i++) {
+            send("POST /api/dcrs", json("POST", "/api/dcrs", token, """
+                    {"visitTitle":"Routine visit","visitType":"Follow-up","doctorId":"D%03d","doctorName":"Dr. Load",
+                     "clinicLocation":"Load Clinic","dateTime":"%sT10:00","rating":"4","remarks":"load test",
+                     "samplesGiven":[{"productId":"P001","productName":"Product X","quantity":1},
+                                     {"productId":"P002","productName":"Product Y","quantity":2}]}
+                    """.formatted(i, LocalDate.now())));
+        }
+        HttpResponse<String> upload = send("POST /api/uploads", multipart("/api/uploads", token, "receipt.jpg", receipt));
+        Matcher url = URL.matcher(upload.body());
+        send("POST /api/mr-expenses", json("POST", "/api/mr-expenses", token, """
+                {"category":"Travel","amount":250.0,"date":"%s","desc":"Fuel","attachment":"%s"}
+                """.formatted(LocalDate.now(), url.find() ? url.group(1) : "")));
+    }
+
+    private void managerShift(String email, int reads) throws Exception {
+        String token = signupAndLogin(email, "MANAGER");
+        for (int i = 0; i < reads; i++) {
+            send("GET /api/users", get("/api/users", token));
+            send("GET /api/dcrs?limit=50", get("/api/dcrs?limit=50", token));
+            send("GET /api/expenses", get("/api/expenses", token));
+            send("GET /api/notifications/unread-count", get("/api/notifications/unread-count", token));
+        }
+    }
+
+    private String signupAndLogin(String email, String role) throws Exception {
+        String password = "Load@12345";
+        send("POST /api/auth/signup", json("POST", "/api/auth/signup", null,
+                "{\"name\":\"Load User\",\"email\":\"" + email + "\",\"password\":\"" + password + "\",\"role\":\"" + role + "\"}"));
+        HttpResponse<String> login = send("POST /api/auth/login", json("POST", "/api/auth/login", null,
+                "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"));
+        Matcher token = TOKEN.matcher(login.body());
+        if (login.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("Login failed for " + email + ": " + login.statusCode());
+        }
+        return token.group(1);
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request) throws Exception {
+        long begin = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        recorders.computeIfAbsent(endpoint, LatencyRecorder::new)
+                .record((System.nanoTime() - begin) / 1_000, response.statusCode());
+        return response;
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String token, String body) {
+        return builder(path, token)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest multipart(String path, String token, String filename, byte[] content) {
+        String boundary = "----loadtest" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return builder(path, token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,50 @@
+package com.kavyapharm.farmatrack;
+
+import com.kavyapharm.farmatrack.dailyplan.service.DailyPlanTaskService;
+import com.kavyapharm.farmatrack.mrdashboard.service.MrDashboardService;
+import com.kavyapharm.farmatrack.mrexpense.service.MrExpenseService;
+import com.kavyapharm.farmatrack.mrstock.service.MrStockService;
+import com.kavyapharm.farmatrack.stockreceived.service.StockReceivedService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@ConditionalOnProperty(name = "app.demo-data.enabled", havingValue = "true", matchIfMissing = true)
+public class DemoDataInitializer implements CommandLineRunner {
+
+    private final MrStockService mrStockService;
+    private final StockReceivedService stockReceivedService;
+    private final MrExpenseService mrExpenseService;
+    private final DailyPlanTaskService dailyPlanTaskService;
+    private final MrDashboardService mrDashboardService;
+
+    private final AtomicBoolean initialized = new AtomicBoolean();
+
+    public DemoDataInitializer(
+            MrStockService mrStockService,
+            StockReceivedService stockReceivedService,
+            MrExpenseService mrExpenseService,
+            DailyPlanTaskService dailyPlanTaskService,
+            MrDashboardService mrDashboardService) {
+        this.mrStockService = mrStockService;
+        this.stockReceivedService = stockReceivedService;
+        this.mrExpenseService = mrExpenseService;
+        this.dailyPlanTaskService = dailyPlanTaskService;
+        this.mrDashboardService = mrDashboardService;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!initialized.compareAndSet(false, true)) {
+            return;
+        }
+        mrStockService.seedDemoData();
+        stockReceivedService.seedDemoData();
+        mrExpenseService.seedDemoData();
+        dailyPlanTaskService.seedDemoData();
+        mrDashboardService.seedDemoData();
+    }
+}
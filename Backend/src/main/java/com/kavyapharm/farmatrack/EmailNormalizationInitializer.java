@@ -0,0 +1,28 @@
+package com.kavyapharm.farmatrack;
+
+import com.kavyapharm.farmatrack.doctor.repository.DoctorRepository;
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Fills email_normalized for rows created before the column existed; must run before any lookup by email.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EmailNormalizationInitializer implements CommandLineRunner {
+
+    private final UserRepository userRepository;
+    private final DoctorRepository doctorRepository;
+
+    public EmailNormalizationInitializer(UserRepository userRepository, DoctorRepository doctorRepository) {
+        this.userRepository = userRepository;
+        this.doctorRepository = doctorRepository;
+    }
+
+    @Override
+    public void run(String... args) {
+        userRepository.backfillEmailNormalized();
+        doctorRepository.backfillEmailNormalized();
+    }
+}
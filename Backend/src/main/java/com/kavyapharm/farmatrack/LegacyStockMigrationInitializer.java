@@ -0,0 +1,31 @@
+package com.kavyapharm.farmatrack;
+
+import com.kavyapharm.farmatrack.mrstock.service.MrStockService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Moves the shared app_mr_stock balances into the central pool; runs before demo seeding so real stock wins.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LegacyStockMigrationInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyStockMigrationInitializer.class);
+
+    private final MrStockService mrStockService;
+
+    public LegacyStockMigrationInitializer(MrStockService mrStockService) {
+        this.mrStockService = mrStockService;
+    }
+
+    @Override
+    public void run(String... args) {
+        int migrated = mrStockService.migrateLegacyStock();
+        if (migrated > 0) {
+            logger.info("Migrated {} app_mr_stock rows into the central stock pool", migrated);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.kavyapharm.farmatrack;
+
+import com.kavyapharm.farmatrack.mrstock.service.StockLedgerService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Runs after the startup runners (including demo seeding) so every stock row starts the ledger with an opening movement.
+@Component
+public class StockLedgerInitializer {
+
+    private final StockLedgerService stockLedgerService;
+
+    public StockLedgerInitializer(StockLedgerService stockLedgerService) {
+        this.stockLedgerService = stockLedgerService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordOpeningBalances() {
+        stockLedgerService.recordOpeningBalances();
+    }
+}
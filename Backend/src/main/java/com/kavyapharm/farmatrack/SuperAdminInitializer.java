@@ -2,32 +2,49 @@ package com.kavyapharm.farmatrack;
 import com.kavyapharm.farmatrack.user.model.UserRole;
 import com.kavyapharm.farmatrack.user.model.UserStatus;
 import com.kavyapharm.farmatrack.user.repository.UserRepository;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Profile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Component
-@Profile("!test")
-public class SuperAdminInitializer implements CommandLineRunner {
+@ConditionalOnProperty(name = "app.superadmin.enabled", havingValue = "true", matchIfMissing = true)
+public class SuperAdminInitializer {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final String email;
+    private final String password;
 
-    public SuperAdminInitializer(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+    public SuperAdminInitializer(
+            UserRepository userRepository,
+            BCryptPasswordEncoder passwordEncoder,
+            @Value("${app.superadmin.email:superadmin@kavyapharm.com}") String email,
+            @Value("${app.superadmin.password:Superadmin@123}") String password) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.email = email;
+        this.password = password;
     }
 
-    @Override
-    public void run(String... args) throws Exception {
-        var existing = userRepository.findByEmailIgnoreCase("superadmin@kavyapharm.com");
+    // Runs off the startup thread once the app is ready, so BCrypt never delays the first request.
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureSuperAdmin();
+    }
+
+    public void ensureSuperAdmin() {
+        var existing = userRepository.findByEmailIgnoreCase(email);
 
         if (existing.isEmpty()) {
             var superadmin = new com.kavyapharm.farmatrack.user.model.User();
             superadmin.setName("SuperAdmin");
-            superadmin.setEmail("superadmin@kavyapharm.com");
-            superadmin.setPasswordHash(passwordEncoder.encode("Superadmin@123"));
+            superadmin.setEmail(email);
+            superadmin.setPasswordHash(passwordEncoder.encode(password));
             superadmin.setRole(UserRole.SUPERADMIN);
             superadmin.setStatus(UserStatus.ACTIVE);
             superadmin.setTerritory("Head Office");
@@ -37,9 +54,22 @@ public class SuperAdminInitializer implements CommandLineRunner {
         }
 
         var superadmin = existing.get();
-        superadmin.setPasswordHash(passwordEncoder.encode("Superadmin@123"));
-        superadmin.setRole(UserRole.SUPERADMIN);
-        superadmin.setStatus(UserStatus.ACTIVE);
-        userRepository.save(superadmin);
+        boolean changed = false;
+        String storedHash = superadmin.getPasswordHash();
+        if (storedHash == null || storedHash.isBlank() || !passwordEncoder.matches(password, storedHash)) {
+            superadmin.setPasswordHash(passwordEncoder.encode(password));
+            changed = true;
+        }
+        if (superadmin.getRole() != UserRole.SUPERADMIN) {
+            superadmin.setRole(UserRole.SUPERADMIN);
+            changed = true;
+        }
+        if (superadmin.getStatus() != UserStatus.ACTIVE) {
+            superadmin.setStatus(UserStatus.ACTIVE);
+            changed = true;
+        }
+        if (changed) {
+            userRepository.save(superadmin);
+        }
     }
-}
\ No newline at end of file
+}
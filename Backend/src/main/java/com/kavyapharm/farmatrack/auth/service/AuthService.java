@@ -3,6 +3,7 @@ package com.kavyapharm.farmatrack.auth.service;
 import com.kavyapharm.farmatrack.auth.dto.LoginRequest;
 import com.kavyapharm.farmatrack.auth.dto.LoginResponse;
 import com.kavyapharm.farmatrack.auth.dto.SignupRequest;
+import com.kavyapharm.farmatrack.security.PasswordHashingService;
 import com.kavyapharm.farmatrack.user.dto.UserResponse;
 import com.kavyapharm.farmatrack.user.model.User;
 import com.kavyapharm.farmatrack.user.model.UserStatus;
@@ -12,6 +13,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
@@ -19,12 +21,21 @@ public class AuthService {
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
     private final com.kavyapharm.farmatrack.security.JwtUtil jwtUtil;
+    private final com.kavyapharm.farmatrack.security.CustomUserDetailsService userDetailsService;
+    private final PasswordHashingService passwordHashingService;
+    private final LastLoginRecorder lastLoginRecorder;
 
     public AuthService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder,
-            com.kavyapharm.farmatrack.security.JwtUtil jwtUtil) {
+            com.kavyapharm.farmatrack.security.JwtUtil jwtUtil,
+            com.kavyapharm.farmatrack.security.CustomUserDetailsService userDetailsService,
+            PasswordHashingService passwordHashingService,
+            LastLoginRecorder lastLoginRecorder) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.passwordHashingService = passwordHashingService;
+        this.lastLoginRecorder = lastLoginRecorder;
     }
 
     public UserResponse signup(SignupRequest request) {
@@ -42,18 +53,25 @@ public class AuthService {
         return UserService.toResponse(userRepository.save(user));
     }
 
-    public LoginResponse login(LoginRequest request) {
+    // The BCrypt check runs on the bounded hashing pool; the caller's thread is free while it waits.
+    public CompletableFuture<LoginResponse> loginAsync(LoginRequest request) {
         User user = userRepository.findByEmailIgnoreCase(request.email())
                 .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
-            throw new IllegalArgumentException("Invalid credentials");
-        }
+        return passwordHashingService.matches(request.password(), user.getPasswordHash())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new IllegalArgumentException("Invalid credentials");
+                    }
 
-        user.setLastLogin(LocalDate.now());
-        userRepository.save(user);
+                    LocalDate today = LocalDate.now();
+                    user.setLastLogin(today);
+                    lastLoginRecorder.record(user.getId(), today);
+                    // A fresh login re-reads the principal so role/status changes made elsewhere take effect immediately.
+                    userDetailsService.evict(user.getEmail());
 
-        String token = jwtUtil.generateToken(new com.kavyapharm.farmatrack.security.CustomUserDetails(user));
-        return new LoginResponse(token, UserService.toResponse(user));
+                    String token = jwtUtil.generateToken(new com.kavyapharm.farmatrack.security.CustomUserDetails(user));
+                    return new LoginResponse(token, UserService.toResponse(user));
+                });
     }
 }
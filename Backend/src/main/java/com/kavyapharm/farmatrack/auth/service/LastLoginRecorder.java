@@ -0,0 +1,52 @@
+package com.kavyapharm.farmatrack.auth.service;
+
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class LastLoginRecorder {
+
+    private final UserRepository userRepository;
+    private final Map<Long, LocalDate> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public void record(Long userId, LocalDate date) {
+        if (userId != null && date != null) {
+            pending.merge(userId, date, (a, b) -> a.isAfter(b) ? a : b);
+        }
+    }
+
+    // Repeated logins by the same user collapse into one pending entry; each flush writes one UPDATE per distinct date.
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        Map<LocalDate, List<Long>> byDate = new HashMap<>();
+        for (Long userId : new ArrayList<>(pending.keySet())) {
+            LocalDate date = pending.remove(userId);
+            if (date != null) {
+                byDate.computeIfAbsent(date, d -> new ArrayList<>()).add(userId);
+            }
+        }
+        byDate.forEach((date, userIds) -> userRepository.updateLastLogin(userIds, date));
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,40 @@
+package com.kavyapharm.farmatrack.common;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+// Marks a one-off data migration as done, so startup skips it instead of re-scanning for work.
+@Entity
+@Table(name = "app_applied_migration")
+public class AppliedMigration {
+
+    @Id
+    @Column(length = 100)
+    private String id;
+
+    @Column(nullable = false)
+    private Instant appliedAt;
+
+    public AppliedMigration() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Instant getAppliedAt() {
+        return appliedAt;
+    }
+
+    public void setAppliedAt(Instant appliedAt) {
+        this.appliedAt = appliedAt;
+    }
+}
@@ -0,0 +1,17 @@
+package com.kavyapharm.farmatrack.common;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface AppliedMigrationRepository extends JpaRepository<AppliedMigration, String> {
+
+    // Claims a migration inside the caller's transaction: 1 for the first caller, 0 once applied. A concurrent
+    // instance waits on the key until the claiming transaction ends, then gets 0 or (after a rollback) the claim.
+    @Modifying
+    @Query(value = "insert ignore into app_applied_migration (id, applied_at) values (:id, :now)", nativeQuery = true)
+    int markApplied(@Param("id") String id, @Param("now") Instant now);
+}
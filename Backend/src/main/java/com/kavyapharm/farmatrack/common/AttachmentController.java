@@ -0,0 +1,170 @@
+package com.kavyapharm.farmatrack.common;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Serves content-addressed uploads ("ab/cd/<sha256>.ext", stored as "ab/cd/<sha256>") on the same URLs the resource
+// handler used; the extension only picks the content type.
+// The name is the content hash, so the ETag is known without touching the file and the bytes never change.
+// Flat legacy names don't match this mapping and still fall through to the resource handler in WebConfig.
+// ?variant=thumb|preview returns the downscaled JPEG of an image upload (see ImageVariantService).
+@RestController
+public class AttachmentController {
+
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]{1,10})?");
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    // Tomcat's sendfile hand-off: with these request attributes set and no body written, the connector
+    // streams the file region itself after the servlet returns. Same threshold as Tomcat's DefaultServlet.
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+
+    public AttachmentController(FileStorageService fileStorageService, ImageVariantService imageVariantService) {
+        this.fileStorageService = fileStorageService;
+        this.imageVariantService = imageVariantService;
+    }
+
+    @GetMapping("/assets/uploads/{shard1}/{shard2}/{name}")
+    public void serve(
+            @PathVariable String shard1,
+            @PathVariable String shard2,
+            @PathVariable String name,
+            @RequestParam(required = false) String variant,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        Matcher matcher = BLOB_NAME.matcher(name);
+        if (!matcher.matches() || shard1.length() != 2 || shard2.length() != 2 || !name.startsWith(shard1 + shard2)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Path file = fileStorageService.locate(shard1 + "/" + shard2 + "/" + name).orElse(null);
+        if (file == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        if (variant != null) {
+            ImageVariantService.Variant requested = ImageVariantService.Variant.of(variant);
+            if (!imageVariantService.supports(name)) {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+            Path variantFile = ImageVariantService.variantPath(file, requested);
+            if (!Files.isRegularFile(variantFile)) {
+                if (imageVariantService.undecodable(file)) {
+                    // There will never be a variant for these bytes, so the original is the answer for good.
+                    serveOriginal(file, name, matcher, request, response);
+                    return;
+                }
+                // Not generated yet: queue it and send the caller to the original for now, without caching the redirect.
+                imageVariantService.requestVariants(file, name);
+                response.setStatus(HttpStatus.FOUND.value());
+                response.setHeader(HttpHeaders.LOCATION, name);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+                return;
+            }
+            serveFile(variantFile, "\"" + matcher.group(1) + "-" + requested.suffix() + "\"", MediaType.IMAGE_JPEG, request, response);
+            return;
+        }
+        serveOriginal(file, name, matcher, request, response);
+    }
+
+    private static void serveOriginal(Path file, String name, Matcher matcher, HttpServletRequest request,
+                                      HttpServletResponse response) throws IOException {
+        serveFile(file, "\"" + matcher.group(1) + "\"",
+                MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM), request, response);
+    }
+
+    private static void serveFile(Path file, String etag, MediaType contentType, HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            long length = channel.size();
+            long start = 0;
+            long end = length - 1;
+
+            String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+                List<HttpRange> ranges;
+                try {
+                    ranges = HttpRange.parseRanges(rangeHeader);
+                    // Multipart byteranges aren't worth it for receipts; several ranges get the whole file instead.
+                    if (ranges.size() == 1) {
+                        start = ranges.get(0).getRangeStart(length);
+                        end = ranges.get(0).getRangeEnd(length);
+                        if (start >= length || start > end) {
+                            throw new IllegalArgumentException("Range starts past the end of the file");
+                        }
+                    }
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                if (ranges.size() == 1) {
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            }
+
+            long count = end - start + 1;
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(count);
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
+
+            if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                request.setAttribute(SENDFILE_FILENAME, file.toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            // Small responses, or a connector without sendfile: copy the region through the servlet stream.
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.kavyapharm.farmatrack.common;
+
+import java.util.function.Function;
+
+public record ExportColumn<T>(String header, Function<T, ?> value) {
+}
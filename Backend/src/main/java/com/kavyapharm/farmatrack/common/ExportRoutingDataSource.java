@@ -0,0 +1,38 @@
+package com.kavyapharm.farmatrack.common;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Hands out connections from the export pool while the current thread runs an export producer, and from the
+// main pool otherwise. The choice is made when a transaction first takes its connection.
+public class ExportRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String EXPORT = "export";
+    private static final ThreadLocal<Boolean> EXPORTING = new ThreadLocal<>();
+
+    public ExportRoutingDataSource(DataSource main, DataSource export) {
+        setDefaultTargetDataSource(main);
+        setTargetDataSources(Map.of(EXPORT, export));
+    }
+
+    public static void whileExporting(Runnable action) {
+        Boolean previous = EXPORTING.get();
+        EXPORTING.set(Boolean.TRUE);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                EXPORTING.remove();
+            } else {
+                EXPORTING.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Boolean.TRUE.equals(EXPORTING.get()) ? EXPORT : null;
+    }
+}
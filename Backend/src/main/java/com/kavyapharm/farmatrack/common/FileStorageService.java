@@ -1,50 +1,194 @@
 package com.kavyapharm.farmatrack.common;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Service
 public class FileStorageService {
 
-    private final Path rootLocation = Paths.get("uploads");
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 
-    public FileStorageService() {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int GC_BATCH_SIZE = 1000;
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    private final Path rootLocation;
+    private final long maxSizeBytes;
+    private final long gcGraceMs;
+    private final UploadBlobService uploadBlobService;
+    private final ImageVariantService imageVariantService;
+
+    public FileStorageService(
+            @Value("${uploads.dir:uploads}") String rootLocation,
+            @Value("${uploads.max-size:10MB}") DataSize maxSize,
+            @Value("${uploads.gc.grace-ms:86400000}") long gcGraceMs,
+            UploadBlobService uploadBlobService,
+            ImageVariantService imageVariantService
+    ) {
+        this.rootLocation = Paths.get(rootLocation).toAbsolutePath().normalize();
+        this.maxSizeBytes = maxSize.toBytes();
+        this.gcGraceMs = gcGraceMs;
+        this.uploadBlobService = uploadBlobService;
+        this.imageVariantService = imageVariantService;
         try {
-            Files.createDirectories(rootLocation);
+            Files.createDirectories(this.rootLocation);
         } catch (IOException e) {
             throw new RuntimeException("Could not initialize storage", e);
         }
     }
 
-    public String store(MultipartFile file) {
+    public StoredFile store(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Failed to store empty file.");
+        }
+        try (InputStream inputStream = file.getInputStream()) {
+            return store(inputStream, file.getOriginalFilename(), file.getSize());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file.", e);
+        }
+    }
+
+    // Copies the body into uploads/ through a fixed-size buffer, hashing as it goes, then files it under its hash alone:
+    // "ab/cd/<sha256>", fanned out over two directory levels. Identical content is stored and counted once whatever it
+    // was called; the returned name adds the extension kept on the blob, so every upload of it gets the same URL.
+    // declaredLength is the client's Content-Length (-1 if unknown); an oversize one is rejected before reading anything.
+    public StoredFile store(InputStream body, String originalFilename, long declaredLength) {
+        if (declaredLength > maxSizeBytes) {
+            throw tooLarge();
+        }
+
+        // Received under a dot-prefixed temp name so a half-received upload is never served.
+        Path partFile = rootLocation.resolve("." + UUID.randomUUID() + ".part");
+        MessageDigest digest = sha256();
+        long size = 0;
         try {
-            if (file.isEmpty()) {
-                throw new RuntimeException("Failed to store empty file.");
-            }
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            String filename = UUID.randomUUID().toString() + extension;
-            Path destinationFile = rootLocation.resolve(Paths.get(filename))
-                    .normalize().toAbsolutePath();
-            if (!destinationFile.getParent().equals(rootLocation.toAbsolutePath())) {
-                throw new RuntimeException("Cannot store file outside current directory.");
+            try (ReadableByteChannel in = Channels.newChannel(body);
+                 FileChannel out = FileChannel.open(partFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSizeBytes) {
+                        throw tooLarge();
+                    }
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
             }
-            try (var inputStream = file.getInputStream()) {
-                Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+            if (size == 0) {
+                throw new IllegalArgumentException("Failed to store empty file.");
             }
-            return filename;
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String key = sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+            Path target = resolve(key);
+            String filename = key + uploadBlobService.place(key, sha256, size, extensionOf(originalFilename), partFile, target);
+            imageVariantService.requestVariants(target, filename);
+            return new StoredFile(filename, sha256, size);
         } catch (IOException e) {
+            deleteQuietly(partFile);
             throw new RuntimeException("Failed to store file.", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partFile);
+            throw e;
+        }
+    }
+
+    // Removes blobs no expense has referenced for the grace period, which also covers uploads that were never attached.
+    @Scheduled(fixedDelayString = "${uploads.gc.interval-ms:3600000}", initialDelayString = "${uploads.gc.interval-ms:3600000}")
+    public int collectGarbage() {
+        Instant cutoff = Instant.now().minusMillis(gcGraceMs);
+        int removed = 0;
+        for (String key : uploadBlobService.findCollectable(cutoff, GC_BATCH_SIZE)) {
+            try {
+                Path file = resolve(key);
+                List<Path> files = new ArrayList<>(ImageVariantService.derivedPaths(file));
+                files.add(file);
+                if (uploadBlobService.collect(key, cutoff, files)) {
+                    removed++;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not collect upload {}", key, e);
+            }
+        }
+        if (removed > 0) {
+            logger.info("Collected {} unreferenced uploads", removed);
+        }
+        return removed;
+    }
+
+    // Takes a name as handed out by store ("ab/cd/<sha256>.ext"); the file itself is stored without the extension.
+    public Optional<Path> locate(String filename) {
+        Path path = resolve(UploadBlobService.keyOf(filename));
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private Path resolve(String key) {
+        Path path = rootLocation.resolve(key).normalize();
+        if (!path.startsWith(rootLocation)) {
+            throw new IllegalArgumentException("Cannot store file outside current directory.");
+        }
+        return path;
+    }
+
+    private PayloadTooLargeException tooLarge() {
+        return new PayloadTooLargeException("File exceeds the maximum upload size of " + maxSizeBytes + " bytes");
+    }
+
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return null;
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        if (!EXTENSION.matcher(extension).matches()) {
+            return null;
+        }
+        extension = extension.toLowerCase(Locale.ROOT);
+        return ".jpeg".equals(extension) ? ".jpg" : extension;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // A leftover .part file is never served; nothing else to do.
         }
     }
 }
@@ -1,12 +1,18 @@
 package com.kavyapharm.farmatrack.common;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -14,16 +20,42 @@ import java.util.Map;
 public class FileUploadController {
 
     private final FileStorageService storageService;
+    private final ImageVariantService imageVariantService;
 
-    public FileUploadController(FileStorageService storageService) {
+    public FileUploadController(FileStorageService storageService, ImageVariantService imageVariantService) {
         this.storageService = storageService;
+        this.imageVariantService = imageVariantService;
     }
 
-    @PostMapping
-    public ResponseEntity<Map<String, String>> uploadFile(@RequestParam("file") MultipartFile file) {
-        String filename = storageService.store(file);
-        // "assets/uploads/" is mapped in WebConfig to "file:uploads/"
-        String url = "assets/uploads/" + filename;
-        return ResponseEntity.ok(Map.of("url", url, "filename", filename));
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadFile(@RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(toResponse(storageService.store(file)));
+    }
+
+    // Raw request body (any non-multipart content type), written to uploads/ as it arrives instead of
+    // being buffered by the multipart resolver first. The original name travels in X-Filename.
+    @PostMapping("/stream")
+    public ResponseEntity<Map<String, Object>> uploadStream(
+            @RequestHeader(value = "X-Filename", required = false) String filename,
+            HttpServletRequest request
+    ) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            return ResponseEntity.ok(toResponse(storageService.store(body, filename, request.getContentLengthLong())));
+        }
+    }
+
+    private Map<String, Object> toResponse(StoredFile stored) {
+        // "assets/uploads/" is mapped in WebConfig to the uploads directory
+        String url = "assets/uploads/" + stored.filename();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("url", url);
+        response.put("filename", stored.filename());
+        response.put("sha256", stored.sha256());
+        response.put("size", stored.size());
+        if (imageVariantService.supports(stored.filename())) {
+            response.put("thumbnailUrl", url + "?variant=" + ImageVariantService.Variant.THUMB.suffix());
+            response.put("previewUrl", url + "?variant=" + ImageVariantService.Variant.PREVIEW.suffix());
+        }
+        return response;
     }
 }
@@ -0,0 +1,62 @@
+package com.kavyapharm.farmatrack.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Locale;
+
+// Time-ordered ids: 41 bits of milliseconds since 2024-01-01, 4 node bits and 8 sequence bits.
+// 53 bits in total so the values stay exact as JavaScript numbers in the dashboards.
+@Component
+public class IdGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Base36 of any 53-bit id fits in 11 characters; notification ids are padded to 10, enough until ~2051.
+    private static final int STRING_ID_WIDTH = 10;
+
+    private final long nodeId;
+
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public IdGenerator(@Value("${app.id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("app.id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public synchronized long nextId() {
+        long timestamp = System.currentTimeMillis() - EPOCH_MILLIS;
+        if (timestamp <= lastTimestamp) {
+            // Same millisecond or the clock moved back: keep counting from the last timestamp,
+            // borrowing the next millisecond once its sequence is exhausted.
+            timestamp = lastTimestamp;
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                timestamp++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    // Smallest id any node can generate at the given instant; ids below it were all drawn earlier.
+    public static long firstIdAt(Instant instant) {
+        return (instant.toEpochMilli() - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS);
+    }
+
+    // Fixed-width upper-case base36 so string ids sort in creation order.
+    public String nextStringId() {
+        String id = Long.toString(nextId(), 36).toUpperCase(Locale.ROOT);
+        return id.length() >= STRING_ID_WIDTH ? id : "0".repeat(STRING_ID_WIDTH - id.length()) + id;
+    }
+}
@@ -0,0 +1,260 @@
+package com.kavyapharm.farmatrack.common;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Downscaled JPEG copies of uploaded receipt photos, written next to the original as "<sha256>.<variant>.jpg".
+// Generated off the request thread after upload; a variant that is missing (still queued, dropped, or the upload
+// predates this) is simply requested again the next time someone asks for it. An original that cannot be decoded
+// gets a "<sha256>.variants.failed" marker instead, so it is never queued again and callers get the original.
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".bmp");
+
+    public enum Variant {
+        THUMB(320, 0.70f),
+        PREVIEW(1280, 0.80f);
+
+        private final int maxSide;
+        private final float quality;
+
+        Variant(int maxSide, float quality) {
+            this.maxSide = maxSide;
+            this.quality = quality;
+        }
+
+        public String suffix() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Variant of(String value) {
+            return Arrays.stream(values())
+                    .filter(v -> v.suffix().equalsIgnoreCase(value == null ? "" : value.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown image variant: " + value));
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(
+            @Value("${uploads.images.threads:2}") int threads,
+            @Value("${uploads.images.queue-capacity:100}") int queueCapacity) {
+        int poolSize = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        // Decoding a phone photo is CPU- and memory-heavy, so only poolSize run at once; overflow is dropped, not queued forever.
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "image-variants-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean supports(String filename) {
+        int dot = filename == null ? -1 : filename.lastIndexOf('.');
+        return dot >= 0 && IMAGE_EXTENSIONS.contains(filename.substring(dot).toLowerCase(Locale.ROOT));
+    }
+
+    public static Path variantPath(Path original, Variant variant) {
+        String name = original.getFileName().toString();
+        int dot = name.indexOf('.');
+        String base = dot < 0 ? name : name.substring(0, dot);
+        return original.resolveSibling(base + "." + variant.suffix() + ".jpg");
+    }
+
+    public static List<Path> variantPaths(Path original) {
+        return Arrays.stream(Variant.values()).map(v -> variantPath(original, v)).toList();
+    }
+
+    public static Path failedMarkerPath(Path original) {
+        String name = original.getFileName().toString();
+        int dot = name.indexOf('.');
+        return original.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + ".variants.failed");
+    }
+
+    // Everything generated next to an original, for removing it together with the original.
+    public static List<Path> derivedPaths(Path original) {
+        List<Path> paths = new ArrayList<>(variantPaths(original));
+        paths.add(failedMarkerPath(original));
+        return paths;
+    }
+
+    public boolean undecodable(Path original) {
+        return Files.exists(failedMarkerPath(original));
+    }
+
+    public void requestVariants(Path original) {
+        requestVariants(original, original.getFileName().toString());
+    }
+
+    // Queues generation of every missing variant; a no-op for non-images, finished, undecodable or already-queued originals.
+    // filename is the name the original is served under, whose extension says whether it is an image.
+    public void requestVariants(Path original, String filename) {
+        if (!supports(filename)
+                || variantPaths(original).stream().allMatch(Files::exists)
+                || undecodable(original)
+                || !inFlight.add(original)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(original);
+                } catch (Exception e) {
+                    logger.warn("Could not create image variants for {}", original.getFileName(), e);
+                } finally {
+                    inFlight.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(original);
+            logger.debug("Image variant queue full, skipping {}", original.getFileName());
+        }
+    }
+
+    void generate(Path original) throws IOException {
+        BufferedImage decoded;
+        try {
+            decoded = decode(original, Variant.PREVIEW.maxSide);
+        } catch (IOException | RuntimeException e) {
+            // Bad bytes under an image name: the content never changes, so neither will the outcome.
+            logger.info("Image upload {} cannot be decoded, serving it without variants: {}", original.getFileName(), e.toString());
+            decoded = null;
+        }
+        if (decoded == null) {
+            Files.write(failedMarkerPath(original), new byte[0]);
+            return;
+        }
+        // Largest first, so each smaller variant is scaled from the previous one rather than the full decode.
+        BufferedImage source = decoded;
+        for (Variant variant : new Variant[]{Variant.PREVIEW, Variant.THUMB}) {
+            BufferedImage scaled = scale(source, variant.maxSide);
+            write(scaled, variant.quality, variantPath(original, variant));
+            source = scaled;
+        }
+    }
+
+    // Subsamples while decoding so a 12-megapixel photo never lands in memory at full resolution.
+    private static BufferedImage decode(Path original, int targetSide) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / targetSide);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves repeatedly before the final bilinear step; one big bilinear jump would alias badly.
+    private static BufferedImage scale(BufferedImage image, int maxSide) {
+        BufferedImage current = image;
+        int longest = Math.max(current.getWidth(), current.getHeight());
+        double ratio = Math.min(1.0, (double) maxSide / longest);
+        int targetWidth = Math.max(1, (int) Math.round(current.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(current.getHeight() * ratio));
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            if (current.getWidth() <= targetWidth * 2) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                // JPEG has no alpha: transparent PNG areas become white rather than black.
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    private static void write(BufferedImage image, float quality, Path target) throws IOException {
+        Path part = target.resolveSibling("." + target.getFileName() + ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(part.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    int pending() {
+        return inFlight.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
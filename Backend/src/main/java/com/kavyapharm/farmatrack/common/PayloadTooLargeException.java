@@ -0,0 +1,8 @@
+package com.kavyapharm.farmatrack.common;
+
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,68 @@
+package com.kavyapharm.farmatrack.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many SQL statements and entity loads each request needed, per endpoint,
+// so an N+1 regression shows up as a shifted distribution next to http.server.requests.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestSqlMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Async requests (CompletableFuture logins, streamed exports, SSE) come back through an async dispatch; the
+    // counts ride on the request across dispatches and are recorded once, by the dispatch that completes it.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestSqlStats stats = (RequestSqlStats) request.getAttribute(RequestSqlStats.REQUEST_ATTRIBUTE);
+        if (stats == null) {
+            stats = new RequestSqlStats();
+            request.setAttribute(RequestSqlStats.REQUEST_ATTRIBUTE, stats);
+        }
+        RequestSqlStats.bind(stats);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.unbind();
+            if (!request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+                summary("http.server.requests.sql.statements", request.getMethod(), uri).record(stats.statementCount());
+                summary("http.server.requests.entity.loads", request.getMethod(), uri).record(stats.entityLoadCount());
+            }
+        }
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.kavyapharm.farmatrack.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// SQL statements and entity loads issued on behalf of one request. The counts live on the request (see
+// REQUEST_ATTRIBUTE) and are bound to whichever thread is working for it: each servlet dispatch, and the async
+// executor running a Callable or StreamingResponseBody. Unbound threads count nothing.
+public final class RequestSqlStats {
+
+    public static final String REQUEST_ATTRIBUTE = RequestSqlStats.class.getName();
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong entityLoads = new AtomicLong();
+
+    public static void bind(RequestSqlStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    public static void statementPrepared() {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.incrementAndGet();
+        }
+    }
+
+    public static void entityLoaded() {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entityLoads.incrementAndGet();
+        }
+    }
+
+    public static long statements() {
+        RequestSqlStats stats = CURRENT.get();
+        return stats == null ? 0 : stats.statements.get();
+    }
+
+    public static long entityLoads() {
+        RequestSqlStats stats = CURRENT.get();
+        return stats == null ? 0 : stats.entityLoads.get();
+    }
+
+    public long statementCount() {
+        return statements.get();
+    }
+
+    public long entityLoadCount() {
+        return entityLoads.get();
+    }
+}
@@ -0,0 +1,39 @@
+package com.kavyapharm.farmatrack.common;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Outside prod, every JSON response reports the SQL work behind it; runs just before the body is written,
+// while headers can still be added.
+@RestControllerAdvice
+@Profile("!prod")
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Statement-Count";
+    public static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            @NonNull MethodParameter returnType,
+            @NonNull MediaType selectedContentType,
+            @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            @NonNull ServerHttpRequest request,
+            @NonNull ServerHttpResponse response) {
+        response.getHeaders().set(STATEMENT_COUNT_HEADER, Long.toString(RequestSqlStats.statements()));
+        response.getHeaders().set(ENTITY_LOAD_COUNT_HEADER, Long.toString(RequestSqlStats.entityLoads()));
+        return body;
+    }
+}
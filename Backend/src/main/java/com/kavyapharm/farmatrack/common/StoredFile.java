@@ -0,0 +1,4 @@
+package com.kavyapharm.farmatrack.common;
+
+public record StoredFile(String filename, String sha256, long size) {
+}
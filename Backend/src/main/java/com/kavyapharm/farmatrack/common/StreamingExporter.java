@@ -0,0 +1,151 @@
+package com.kavyapharm.farmatrack.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+// Writes export rows straight to the response as the producer hands them over, so only the
+// current row and the writer buffer are ever held in memory.
+@Component
+public class StreamingExporter {
+
+    public enum Format {
+        CSV("csv", "text/csv"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, String mediaType) {
+            this.extension = extension;
+            this.mediaType = new MediaType(MediaType.parseMediaType(mediaType), StandardCharsets.UTF_8);
+        }
+
+        public static Format of(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    // Rows per round trip for export cursors. MySQL honours it only on the export pool's connections, which set
+    // useCursorFetch=true (see ExportDataSourceConfig); producers run while that pool is selected.
+    public static final String FETCH_SIZE = "500";
+
+    // Read by WebConfig when the async request starts; only export responses get the long timeout.
+    public static final String REQUEST_TIMEOUT_ATTRIBUTE = StreamingExporter.class.getName() + ".REQUEST_TIMEOUT";
+
+    private final ObjectWriter jsonWriter;
+    private final long requestTimeoutMs;
+
+    public StreamingExporter(ObjectMapper objectMapper, @Value("${exports.request-timeout-ms:600000}") long requestTimeoutMs) {
+        this.jsonWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> export(
+            String baseName, String format, List<ExportColumn<T>> columns, Consumer<Consumer<T>> producer) {
+        Format exportFormat = Format.of(format);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(REQUEST_TIMEOUT_ATTRIBUTE, requestTimeoutMs, RequestAttributes.SCOPE_REQUEST);
+        }
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                if (exportFormat == Format.CSV) {
+                    writeCsvLine(writer, columns.stream().map(ExportColumn::header).toList());
+                    ExportRoutingDataSource.whileExporting(() -> producer.accept(row -> writeCsvRow(writer, columns, row)));
+                } else {
+                    ExportRoutingDataSource.whileExporting(() -> producer.accept(row -> writeJsonLine(writer, row)));
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(baseName + "." + exportFormat.extension).build().toString())
+                .body(body);
+    }
+
+    public static void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+    }
+
+    private <T> void writeCsvRow(Writer writer, List<ExportColumn<T>> columns, T row) {
+        try {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                writeCsvValue(writer, value == null ? "" : value.toString());
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeJsonLine(Writer writer, Object row) {
+        try {
+            jsonWriter.writeValue(writer, row);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling embedded quotes.
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
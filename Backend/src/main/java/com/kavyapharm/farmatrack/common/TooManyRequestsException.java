@@ -0,0 +1,8 @@
+package com.kavyapharm.farmatrack.common;
+
+public class TooManyRequestsException extends RuntimeException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
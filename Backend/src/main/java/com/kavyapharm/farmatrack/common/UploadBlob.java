@@ -0,0 +1,100 @@
+package com.kavyapharm.farmatrack.common;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+// One stored upload, keyed by its path under the uploads directory ("ab/cd/<sha256>"). extension (".jpg", or null)
+// is appended to the key in the names handed out, so attachments are served with a content type.
+// refCount counts the expenses pointing at it; unreferencedSince starts the garbage-collection grace period.
+@Entity
+@Table(
+        name = "app_upload_blob",
+        indexes = @Index(name = "idx_upload_blob_unreferenced", columnList = "refCount, unreferencedSince")
+)
+public class UploadBlob {
+
+    @Id
+    @Column(length = 100)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Column(length = 11)
+    private String extension;
+
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant unreferencedSince;
+
+    public UploadBlob() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+
+    public Integer getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUnreferencedSince() {
+        return unreferencedSince;
+    }
+
+    public void setUnreferencedSince(Instant unreferencedSince) {
+        this.unreferencedSince = unreferencedSince;
+    }
+}
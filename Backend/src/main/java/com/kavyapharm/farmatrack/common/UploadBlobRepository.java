@@ -0,0 +1,56 @@
+package com.kavyapharm.farmatrack.common;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadBlobRepository extends JpaRepository<UploadBlob, String> {
+
+    // Registers a blob at zero references; a concurrent upload of the same content is a no-op.
+    @Modifying
+    @Query(value = "insert ignore into app_upload_blob (id, sha256, size_bytes, extension, ref_count, created_at, unreferenced_since) "
+            + "values (:id, :sha256, :size, :extension, 0, :now, :now)", nativeQuery = true)
+    int insertIfMissing(@Param("id") String id, @Param("sha256") String sha256, @Param("size") long size,
+                        @Param("extension") String extension, @Param("now") Instant now);
+
+    // A blob first uploaded without a usable name takes the extension of the first upload that has one.
+    @Modifying
+    @Query("update UploadBlob b set b.extension = :extension where b.id = :id and b.extension is null")
+    int fillExtension(@Param("id") String id, @Param("extension") String extension);
+
+    @Query("select b.extension from UploadBlob b where b.id = :id")
+    String findExtension(@Param("id") String id);
+
+    // Re-uploading an unreferenced blob restarts its grace period (and locks the row against the collector).
+    @Modifying
+    @Query("update UploadBlob b set b.unreferencedSince = :now where b.id = :id and b.refCount = 0")
+    int touchUnreferenced(@Param("id") String id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update UploadBlob b set b.refCount = b.refCount + 1, b.unreferencedSince = null where b.id in :ids")
+    int retain(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("update UploadBlob b set b.refCount = b.refCount - 1 where b.id in :ids and b.refCount > 0")
+    int release(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("update UploadBlob b set b.unreferencedSince = :now where b.id in :ids and b.refCount = 0")
+    int markUnreferenced(@Param("ids") Collection<String> ids, @Param("now") Instant now);
+
+    @Query("select b.id from UploadBlob b where b.refCount = 0 and b.unreferencedSince < :cutoff order by b.unreferencedSince")
+    List<String> findUnreferencedBefore(@Param("cutoff") Instant cutoff, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from UploadBlob b where b.id = :id and b.refCount = 0 and b.unreferencedSince < :cutoff")
+    Optional<UploadBlob> lockUnreferenced(@Param("id") String id, @Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,122 @@
+package com.kavyapharm.farmatrack.common;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class UploadBlobService {
+
+    // "ab/cd/<sha256>" plus the extension it is served under.
+    private static final Pattern BLOB_NAME = Pattern.compile("([0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64})(\\.[a-z0-9]{1,10})?");
+
+    private final UploadBlobRepository blobRepository;
+
+    public UploadBlobService(UploadBlobRepository blobRepository) {
+        this.blobRepository = blobRepository;
+    }
+
+    // Registers a fully received upload and returns the extension its blob is served under: the first one any upload of
+    // these bytes brought, so they all share one name. The file moves into place only after the row commits, so a
+    // rollback never leaves a file the collector (which walks rows) cannot see; the caller deletes the .part file then.
+    // The touch restarts the grace period, so the collector cannot take the blob between the commit and the reply.
+    @Transactional
+    public String place(String key, String sha256, long size, String extension, Path partFile, Path target) {
+        Instant now = Instant.now();
+        blobRepository.insertIfMissing(key, sha256, size, extension, now);
+        blobRepository.touchUnreferenced(key, now);
+        if (extension != null) {
+            blobRepository.fillExtension(key, extension);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                moveIntoPlace(partFile, target);
+            }
+        });
+        String stored = blobRepository.findExtension(key);
+        return stored == null ? "" : stored;
+    }
+
+    private static void moveIntoPlace(Path partFile, Path target) {
+        try {
+            if (Files.exists(target)) {
+                Files.deleteIfExists(partFile);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store file.", e);
+        }
+    }
+
+    // The blob key of a stored name; other names (external URLs, files from before deduplication) are returned as is.
+    static String keyOf(String name) {
+        Matcher matcher = BLOB_NAME.matcher(name);
+        return matcher.matches() ? matcher.group(1) : name;
+    }
+
+    // Applies the difference between the attachment names a record held and now holds.
+    // Names that are not stored blobs (external URLs, files from before deduplication) are ignored.
+    @Transactional
+    public void updateReferences(Collection<String> previous, Collection<String> current) {
+        Set<String> added = keys(current);
+        Set<String> removed = keys(previous);
+        added.removeAll(keys(previous));
+        removed.removeAll(keys(current));
+
+        if (!added.isEmpty()) {
+            blobRepository.retain(added);
+        }
+        if (!removed.isEmpty()) {
+            blobRepository.release(removed);
+            blobRepository.markUnreferenced(removed, Instant.now());
+        }
+    }
+
+    public List<String> findCollectable(Instant cutoff, int limit) {
+        return blobRepository.findUnreferencedBefore(cutoff, Limit.of(limit));
+    }
+
+    // Deletes the files while holding the row lock, then the row; false if the blob was referenced or touched meanwhile.
+    @Transactional
+    public boolean collect(String key, Instant cutoff, List<Path> files) {
+        return blobRepository.lockUnreferenced(key, cutoff).map(blob -> {
+            try {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete " + key, e);
+            }
+            blobRepository.delete(blob);
+            return true;
+        }).orElse(false);
+    }
+
+    private static Set<String> keys(Collection<String> names) {
+        // Sorted so concurrent reference updates lock blob rows in the same order.
+        Set<String> keys = new TreeSet<>();
+        if (names != null) {
+            names.stream().filter(Objects::nonNull).map(UploadBlobService::keyOf).forEach(keys::add);
+        }
+        return keys;
+    }
+}
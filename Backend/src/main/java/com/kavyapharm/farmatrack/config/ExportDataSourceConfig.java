@@ -0,0 +1,51 @@
+package com.kavyapharm.farmatrack.config;
+
+import com.kavyapharm.farmatrack.common.ExportRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+// On MySQL, export queries read through a server-side cursor (Connector/J useCursorFetch), which also switches a
+// connection to server-side prepared statements. Only a small export pool gets that URL; everything else keeps
+// the configured one. Other databases (H2 in tests) run exports on the single auto-configured pool.
+@Configuration
+@ConditionalOnExpression("'${spring.datasource.url:}'.startsWith('jdbc:mysql:')")
+public class ExportDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource mainDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource exportDataSource(DataSourceProperties properties, @Value("${exports.pool-size:2}") int poolSize) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(withCursorFetch(properties.determineUrl()))
+                .build();
+        dataSource.setPoolName("export");
+        dataSource.setMaximumPoolSize(Math.max(1, poolSize));
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("mainDataSource") DataSource mainDataSource,
+            @Qualifier("exportDataSource") DataSource exportDataSource) {
+        return new ExportRoutingDataSource(mainDataSource, exportDataSource);
+    }
+
+    static String withCursorFetch(String url) {
+        return url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true";
+    }
+}
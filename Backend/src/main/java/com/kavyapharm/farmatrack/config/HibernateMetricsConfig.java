@@ -0,0 +1,37 @@
+package com.kavyapharm.farmatrack.config;
+
+import com.kavyapharm.farmatrack.common.RequestSqlStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Feeds RequestSqlStats: every prepared statement and every loaded entity counts against the request bound to the calling thread.
+@Configuration
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlCountingStatementInspector() {
+        StatementInspector inspector = sql -> {
+            RequestSqlStats.statementPrepared();
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityLoadCounter(EntityManagerFactory entityManagerFactory) {
+        PostLoadEventListener listener = event -> RequestSqlStats.entityLoaded();
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, listener);
+    }
+}
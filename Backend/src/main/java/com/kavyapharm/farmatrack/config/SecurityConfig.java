@@ -1,6 +1,7 @@
 package com.kavyapharm.farmatrack.config;
 
 import com.kavyapharm.farmatrack.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,6 +16,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -35,21 +38,24 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Async re-dispatches (SSE streams, CompletableFuture results) were authorized on the original request.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Ant matchers: suffix patterns like /**/*.js are not valid MVC path patterns.
                         .requestMatchers(
-                                "/",
-                                "/index.html",
-                                "/login.html",
-                                "/signup.html",
-                                "/assets/**",
-                                "/**/*.js",
-                                "/**/*.css",
-                                "/**/*.png",
-                                "/**/*.jpg",
-                                "/**/*.jpeg",
-                                "/**/*.gif",
-                                "/**/*.svg",
-                                "/favicon.ico")
+                                antMatcher("/"),
+                                antMatcher("/index.html"),
+                                antMatcher("/login.html"),
+                                antMatcher("/signup.html"),
+                                antMatcher("/assets/**"),
+                                antMatcher("/**/*.js"),
+                                antMatcher("/**/*.css"),
+                                antMatcher("/**/*.png"),
+                                antMatcher("/**/*.jpg"),
+                                antMatcher("/**/*.jpeg"),
+                                antMatcher("/**/*.gif"),
+                                antMatcher("/**/*.svg"),
+                                antMatcher("/favicon.ico"))
                         .permitAll()
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().permitAll())
@@ -1,21 +1,46 @@
 package com.kavyapharm.farmatrack.config;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
 
+import com.kavyapharm.farmatrack.common.RequestSqlStats;
+import com.kavyapharm.farmatrack.common.StreamingExporter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     @org.springframework.beans.factory.annotation.Value("${cors.allowed-origins:*}")
     private String allowedOrigins;
 
+    @org.springframework.beans.factory.annotation.Value("${uploads.dir:uploads}")
+    private String uploadsDir;
+
     @Override
     public void addCorsMappings(@NonNull CorsRegistry registry) {
         registry
@@ -52,13 +77,93 @@ public class WebConfig implements WebMvcConfigurer {
             location = location + "/";
         }
 
+        // Pages reference fingerprinted "name-<md5>.ext" URLs after the build (StaticAssetPipeline); the version
+        // resolver maps them back to the file, and the encoded resolver picks the .br or .gz sibling when accepted.
+        // Only the built copy has those, so the source tree is served only when nothing was built (IDE runs).
+        // Cache-Control is set per request by StaticAssetCacheInterceptor; HTML revalidates through the ETag.
+        String[] staticLocations = new ClassPathResource("static/").exists()
+                ? new String[]{"classpath:/static/"}
+                : new String[]{location};
         registry
                 .addResourceHandler("/**")
-                .addResourceLocations(location, "classpath:/static/");
+                .addResourceLocations(staticLocations)
+                .setEtagGenerator(WebConfig::staticEtag)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+
+        String uploadsLocation = Paths.get(uploadsDir).toAbsolutePath().normalize().toUri().toString();
+        if (!uploadsLocation.endsWith("/")) {
+            uploadsLocation = uploadsLocation + "/";
+        }
 
         registry
                 .addResourceHandler("/assets/uploads/**")
-                .addResourceLocations("file:uploads/", "classpath:/static/assets/uploads/");
+                .addResourceLocations(uploadsLocation, "classpath:/static/assets/uploads/");
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new StaticAssetCacheInterceptor())
+                .excludePathPatterns("/api/**", "/assets/uploads/**");
+    }
+
+    @Override
+    public void configureAsyncSupport(@NonNull AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new ExportTimeoutInterceptor(), new SqlStatsBindingInterceptor());
+    }
+
+    // Modification time plus length: cheap, and differs between a file and its .gz/.br variants as it must.
+    private static String staticEtag(Resource resource) {
+        try {
+            return "\"" + Long.toHexString(resource.lastModified()) + "-" + Long.toHexString(resource.contentLength()) + "\"";
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static class StaticAssetCacheInterceptor implements HandlerInterceptor {
+
+        private static final Pattern FINGERPRINTED = Pattern.compile("-[0-9a-f]{32}\\.[A-Za-z0-9]+$");
+        private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+        private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
+        @Override
+        public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+            if (handler instanceof ResourceHttpRequestHandler) {
+                boolean fingerprinted = FINGERPRINTED.matcher(request.getRequestURI()).find();
+                response.setHeader(HttpHeaders.CACHE_CONTROL, fingerprinted ? IMMUTABLE : REVALIDATE);
+            }
+            return true;
+        }
+    }
+
+    // Streaming exports can run for minutes; every other async request keeps the container default.
+    static class ExportTimeoutInterceptor implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void beforeConcurrentHandling(@NonNull NativeWebRequest request, @NonNull Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncRequest
+                    && request.getAttribute(StreamingExporter.REQUEST_TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long timeout) {
+                asyncRequest.setTimeout(timeout);
+            }
+        }
+    }
+
+    // Streamed export bodies query the database on the async executor; count that work against the request.
+    static class SqlStatsBindingInterceptor implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void preProcess(@NonNull NativeWebRequest request, @NonNull Callable<T> task) {
+            if (request.getAttribute(RequestSqlStats.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestSqlStats stats) {
+                RequestSqlStats.bind(stats);
+            }
+        }
+
+        @Override
+        public <T> void postProcess(@NonNull NativeWebRequest request, @NonNull Callable<T> task, Object concurrentResult) {
+            RequestSqlStats.unbind();
+        }
     }
 
     @Override
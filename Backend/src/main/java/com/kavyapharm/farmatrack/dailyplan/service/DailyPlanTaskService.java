@@ -21,7 +21,6 @@ public class DailyPlanTaskService {
     }
 
     public List<DailyPlanTaskResponse> list(String date) {
-        ensureInitialized();
         if (date != null && !date.isBlank()) {
             return repository.findAllByDate(date).stream().map(DailyPlanTaskService::toResponse).toList();
         }
@@ -31,7 +30,6 @@ public class DailyPlanTaskService {
 
     public DailyPlanTaskResponse updateStatus(Long id, UpdateDailyPlanTaskStatusRequest request) {
         Objects.requireNonNull(id, "id is required");
-        ensureInitialized();
         DailyPlanTask task = getEntity(id);
         task.setStatus(request.status());
         return toResponse(repository.save(task));
@@ -51,7 +49,7 @@ public class DailyPlanTaskService {
                 .orElseThrow(() -> new IllegalArgumentException("Daily plan task not found"));
     }
 
-    private void ensureInitialized() {
+    public void seedDemoData() {
         if (repository.count() > 0) {
             return;
         }
@@ -1,14 +1,19 @@
 package com.kavyapharm.farmatrack.dcr.controller;
 
+import com.kavyapharm.farmatrack.common.StreamingExporter;
 import com.kavyapharm.farmatrack.dcr.dto.CreateDcrRequest;
+import com.kavyapharm.farmatrack.dcr.dto.DcrPageResponse;
 import com.kavyapharm.farmatrack.dcr.dto.DcrResponse;
 import com.kavyapharm.farmatrack.dcr.dto.UpdateDcrRequest;
 import com.kavyapharm.farmatrack.dcr.service.DcrService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,9 +21,11 @@ import java.util.List;
 public class DcrController {
 
     private final DcrService dcrService;
+    private final StreamingExporter streamingExporter;
 
-    public DcrController(DcrService dcrService) {
+    public DcrController(DcrService dcrService, StreamingExporter streamingExporter) {
         this.dcrService = dcrService;
+        this.streamingExporter = streamingExporter;
     }
 
     @GetMapping
@@ -26,6 +33,28 @@ public class DcrController {
         return dcrService.list();
     }
 
+    @GetMapping(params = "limit")
+    public DcrPageResponse page(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) String visitType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return dcrService.page(cursor, limit, doctorId, visitType, from, to);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        StreamingExporter.checkRange(from, to);
+        return streamingExporter.export("dcrs", format, DcrService.EXPORT_COLUMNS, sink -> dcrService.export(from, to, sink));
+    }
+
     @GetMapping("/{reportId}")
     public DcrResponse get(@PathVariable Long reportId) {
         return dcrService.get(reportId);
@@ -0,0 +1,9 @@
+package com.kavyapharm.farmatrack.dcr.dto;
+
+import java.util.List;
+
+public record DcrPageResponse(
+        List<DcrResponse> items,
+        Long nextCursor
+) {
+}
@@ -5,15 +5,27 @@ import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "app_dcr")
-public class DcrReport {
+@Table(
+        name = "app_dcr",
+        indexes = {
+                @Index(name = "idx_dcr_doctor_report", columnList = "doctorId, reportId"),
+                @Index(name = "idx_dcr_visit_type_report", columnList = "visitType, reportId"),
+                @Index(name = "idx_dcr_date_time", columnList = "dateTime")
+        }
+)
+public class DcrReport implements Persistable<Long> {
 
     @Id
     private Long reportId;
@@ -49,9 +61,24 @@ public class DcrReport {
     @Column(nullable = false)
     private String submissionTime;
 
+    // Owner of the stock this report drew samples from; null for reports filed before stock was per MR.
+    private Long mrId;
+
+    // Ids are assigned by IdGenerator, so tell Spring Data to persist instead of probing with a merge.
+    @Transient
+    private boolean isNew = true;
+
     public DcrReport() {
     }
 
+    public Long getMrId() {
+        return mrId;
+    }
+
+    public void setMrId(Long mrId) {
+        this.mrId = mrId;
+    }
+
     public Long getReportId() {
         return reportId;
     }
@@ -139,4 +166,20 @@ public class DcrReport {
     public void setSubmissionTime(String submissionTime) {
         this.submissionTime = submissionTime;
     }
+
+    @Override
+    public Long getId() {
+        return reportId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
@@ -1,7 +1,71 @@
 package com.kavyapharm.farmatrack.dcr.repository;
 
+import com.kavyapharm.farmatrack.common.StreamingExporter;
 import com.kavyapharm.farmatrack.dcr.model.DcrReport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface DcrRepository extends JpaRepository<DcrReport, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface DcrRepository extends JpaRepository<DcrReport, Long>, DcrRepositoryCustom {
+
+    @EntityGraph(attributePaths = "samplesGiven")
+    Optional<DcrReport> findWithSamplesByReportId(Long reportId);
+
+    @EntityGraph(attributePaths = "samplesGiven")
+    List<DcrReport> findAllWithSamplesByOrderByReportIdDesc();
+
+    @EntityGraph(attributePaths = "samplesGiven")
+    List<DcrReport> findAllWithSamplesByReportIdInOrderByReportIdDesc(Collection<Long> reportIds);
+
+    // One row per sample (or one row for a report without samples), ordered so a report's rows are adjacent.
+    // Scalar projections keep the persistence context empty however many rows the cursor walks.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingExporter.FETCH_SIZE))
+    @Query("""
+            select r.reportId as reportId, r.visitTitle as visitTitle, r.visitType as visitType,
+                   r.doctorId as doctorId, r.doctorName as doctorName, r.clinicLocation as clinicLocation,
+                   r.dateTime as dateTime, r.rating as rating, r.remarks as remarks, r.submissionTime as submissionTime,
+                   s.productId as sampleProductId, s.productName as sampleProductName, s.quantity as sampleQuantity
+            from DcrReport r left join r.samplesGiven s
+            where (:fromDateTime is null or r.dateTime >= :fromDateTime)
+              and (:toDateTime is null or r.dateTime < :toDateTime)
+            order by r.dateTime, r.reportId
+            """)
+    Stream<ExportRow> streamForExport(@Param("fromDateTime") String fromDateTime, @Param("toDateTime") String toDateTime);
+
+    interface ExportRow {
+        Long getReportId();
+
+        String getVisitTitle();
+
+        String getVisitType();
+
+        String getDoctorId();
+
+        String getDoctorName();
+
+        String getClinicLocation();
+
+        String getDateTime();
+
+        String getRating();
+
+        String getRemarks();
+
+        String getSubmissionTime();
+
+        String getSampleProductId();
+
+        String getSampleProductName();
+
+        Integer getSampleQuantity();
+    }
 }
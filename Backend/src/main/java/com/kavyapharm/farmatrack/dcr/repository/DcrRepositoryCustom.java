@@ -0,0 +1,9 @@
+package com.kavyapharm.farmatrack.dcr.repository;
+
+import java.util.List;
+
+public interface DcrRepositoryCustom {
+
+    // Report ids newest first; null arguments are left out of the query rather than matched as "is null".
+    List<Long> findPageIds(Long cursor, String doctorId, String visitType, String fromDateTime, String toDateTime, int limit);
+}
@@ -0,0 +1,49 @@
+package com.kavyapharm.farmatrack.dcr.repository;
+
+import com.kavyapharm.farmatrack.dcr.model.DcrReport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DcrRepositoryImpl implements DcrRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findPageIds(Long cursor, String doctorId, String visitType, String fromDateTime, String toDateTime, int limit) {
+        // Only the filters actually given become predicates, so each combination is its own statement and plan:
+        // a doctor or visit-type page seeks (column, reportId) instead of sharing one plan with every other filter.
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<DcrReport> report = query.from(DcrReport.class);
+
+        List<Predicate> where = new ArrayList<>();
+        if (cursor != null) {
+            where.add(cb.lessThan(report.get("reportId"), cursor));
+        }
+        if (doctorId != null) {
+            where.add(cb.equal(report.get("doctorId"), doctorId));
+        }
+        if (visitType != null) {
+            where.add(cb.equal(report.get("visitType"), visitType));
+        }
+        if (fromDateTime != null) {
+            where.add(cb.greaterThanOrEqualTo(report.get("dateTime"), fromDateTime));
+        }
+        if (toDateTime != null) {
+            where.add(cb.lessThan(report.get("dateTime"), toDateTime));
+        }
+
+        query.select(report.get("reportId"))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(report.get("reportId")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,6 +1,10 @@
 package com.kavyapharm.farmatrack.dcr.service;
 
+import com.kavyapharm.farmatrack.common.ExportColumn;
+import com.kavyapharm.farmatrack.common.IdGenerator;
+import com.kavyapharm.farmatrack.common.StreamingExporter;
 import com.kavyapharm.farmatrack.dcr.dto.CreateDcrRequest;
+import com.kavyapharm.farmatrack.dcr.dto.DcrPageResponse;
 import com.kavyapharm.farmatrack.dcr.dto.DcrResponse;
 import com.kavyapharm.farmatrack.dcr.dto.DcrSampleItemRequest;
 import com.kavyapharm.farmatrack.dcr.dto.DcrSampleItemResponse;
@@ -9,46 +13,145 @@ import com.kavyapharm.farmatrack.dcr.model.DcrReport;
 import com.kavyapharm.farmatrack.dcr.model.DcrSampleItem;
 import com.kavyapharm.farmatrack.dcr.repository.DcrRepository;
 import com.kavyapharm.farmatrack.mrstock.service.MrStockService;
-import org.springframework.data.domain.Sort;
+import com.kavyapharm.farmatrack.mrstock.service.StockOwner;
+import com.kavyapharm.farmatrack.mrstock.service.StockOwnerResolver;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DcrService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    public static final List<ExportColumn<DcrResponse>> EXPORT_COLUMNS = List.of(
+            new ExportColumn<>("reportId", DcrResponse::reportId),
+            new ExportColumn<>("dateTime", DcrResponse::dateTime),
+            new ExportColumn<>("visitTitle", DcrResponse::visitTitle),
+            new ExportColumn<>("visitType", DcrResponse::visitType),
+            new ExportColumn<>("doctorId", DcrResponse::doctorId),
+            new ExportColumn<>("doctorName", DcrResponse::doctorName),
+            new ExportColumn<>("clinicLocation", DcrResponse::clinicLocation),
+            new ExportColumn<>("rating", DcrResponse::rating),
+            new ExportColumn<>("remarks", DcrResponse::remarks),
+            new ExportColumn<>("samplesGiven", r -> r.samplesGiven().stream()
+                    .map(s -> s.productId() + ":" + s.quantity()).collect(Collectors.joining(";"))),
+            new ExportColumn<>("submissionTime", DcrResponse::submissionTime)
+    );
+
     private final DcrRepository dcrRepository;
     private final MrStockService mrStockService;
+    private final IdGenerator idGenerator;
+    private final StockOwnerResolver stockOwnerResolver;
 
-    public DcrService(DcrRepository dcrRepository, MrStockService mrStockService) {
+    public DcrService(DcrRepository dcrRepository, MrStockService mrStockService, IdGenerator idGenerator, StockOwnerResolver stockOwnerResolver) {
         this.dcrRepository = dcrRepository;
         this.mrStockService = mrStockService;
+        this.idGenerator = idGenerator;
+        this.stockOwnerResolver = stockOwnerResolver;
     }
 
     public List<DcrResponse> list() {
-        return dcrRepository.findAll(Sort.by(Sort.Direction.DESC, "reportId"))
+        return dcrRepository.findAllWithSamplesByOrderByReportIdDesc()
+                .stream().map(DcrService::toResponse).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public DcrPageResponse page(Long cursor, Integer limit, String doctorId, String visitType, LocalDate from, LocalDate to) {
+        int size = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query.
+        List<Long> ids = dcrRepository.findPageIds(
+                cursor,
+                blankToNull(doctorId),
+                blankToNull(visitType),
+                from == null ? null : from.toString(),
+                to == null ? null : to.plusDays(1).toString(),
+                size + 1
+        );
+
+        boolean hasMore = ids.size() > size;
+        List<Long> pageIds = hasMore ? ids.subList(0, size) : ids;
+        Long nextCursor = hasMore ? pageIds.get(pageIds.size() - 1) : null;
+        if (pageIds.isEmpty()) {
+            return new DcrPageResponse(List.of(), null);
+        }
+
+        // Reports and their sample items are loaded together so toResponse never triggers a per-report SELECT.
+        List<DcrResponse> items = dcrRepository.findAllWithSamplesByReportIdInOrderByReportIdDesc(pageIds)
                 .stream().map(DcrService::toResponse).toList();
+        return new DcrPageResponse(items, nextCursor);
+    }
+
+    // Walks a forward-only cursor and hands each report to the sink as soon as its last sample row has been read.
+    @Transactional(readOnly = true)
+    public void export(LocalDate from, LocalDate to, Consumer<DcrResponse> sink) {
+        StreamingExporter.checkRange(from, to);
+        try (Stream<DcrRepository.ExportRow> rows = dcrRepository.streamForExport(
+                from == null ? null : from.toString(),
+                to == null ? null : to.plusDays(1).toString())) {
+            DcrRepository.ExportRow current = null;
+            List<DcrSampleItemResponse> samples = new ArrayList<>();
+            for (DcrRepository.ExportRow row : (Iterable<DcrRepository.ExportRow>) rows::iterator) {
+                if (current != null && !current.getReportId().equals(row.getReportId())) {
+                    sink.accept(toResponse(current, samples));
+                    samples = new ArrayList<>();
+                }
+                current = row;
+                if (row.getSampleProductId() != null) {
+                    samples.add(new DcrSampleItemResponse(row.getSampleProductId(), row.getSampleProductName(), row.getSampleQuantity()));
+                }
+            }
+            if (current != null) {
+                sink.accept(toResponse(current, samples));
+            }
+        }
+    }
+
+    private static DcrResponse toResponse(DcrRepository.ExportRow row, List<DcrSampleItemResponse> samples) {
+        return new DcrResponse(
+                row.getReportId(),
+                row.getVisitTitle(),
+                row.getVisitType(),
+                row.getDoctorId(),
+                row.getDoctorName(),
+                row.getClinicLocation(),
+                row.getDateTime(),
+                row.getRating(),
+                row.getRemarks(),
+                samples,
+                row.getSubmissionTime()
+        );
     }
 
     public DcrResponse get(Long reportId) {
         Objects.requireNonNull(reportId, "reportId is required");
-        return toResponse(getEntity(reportId));
+        return dcrRepository.findWithSamplesByReportId(reportId)
+                .map(DcrService::toResponse)
+                .orElseThrow(() -> new IllegalArgumentException("DCR not found"));
     }
 
     @Transactional
     public DcrResponse create(CreateDcrRequest request) {
-        long reportId = System.currentTimeMillis();
-
         DcrReport report = new DcrReport();
-        report.setReportId(reportId);
+        report.setReportId(idGenerator.nextId());
         applyFields(report, request.visitTitle(), request.visitType(), request.doctorId(), request.doctorName(), request.clinicLocation(), request.dateTime(), request.rating(), request.remarks(), request.samplesGiven());
         report.setSubmissionTime(Instant.now().toString());
 
-        deductStock(report.getSamplesGiven());
+        StockOwner owner = stockOwnerResolver.current();
+        report.setMrId(owner.mrId());
+        mrStockService.adjustBatch(owner, negate(quantitiesByProduct(report.getSamplesGiven())), "DCR:" + report.getReportId());
 
         return toResponse(dcrRepository.save(report));
     }
@@ -58,12 +161,15 @@ public class DcrService {
         Objects.requireNonNull(reportId, "reportId is required");
         DcrReport existing = getEntity(reportId);
 
-        refundStock(existing.getSamplesGiven());
+        Map<String, Integer> previous = quantitiesByProduct(existing.getSamplesGiven());
 
         applyFields(existing, request.visitTitle(), request.visitType(), request.doctorId(), request.doctorName(), request.clinicLocation(), request.dateTime(), request.rating(), request.remarks(), request.samplesGiven());
         existing.setSubmissionTime(Instant.now().toString());
 
-        deductStock(existing.getSamplesGiven());
+        // Only the difference between the old and new sample lists touches stock.
+        Map<String, Integer> net = new TreeMap<>(previous);
+        quantitiesByProduct(existing.getSamplesGiven()).forEach((productId, qty) -> net.merge(productId, -qty, Integer::sum));
+        mrStockService.adjustBatch(stockOwnerResolver.of(existing.getMrId()), net, "DCR:" + reportId);
 
         return toResponse(dcrRepository.save(existing));
     }
@@ -76,13 +182,14 @@ public class DcrService {
         }
 
         DcrReport existing = getEntity(reportId);
-        refundStock(existing.getSamplesGiven());
+        mrStockService.adjustBatch(stockOwnerResolver.of(existing.getMrId()), quantitiesByProduct(existing.getSamplesGiven()), "DCR:" + reportId);
         dcrRepository.deleteById(reportId);
     }
 
-    private void refundStock(List<DcrSampleItem> items) {
+    private static Map<String, Integer> quantitiesByProduct(List<DcrSampleItem> items) {
+        Map<String, Integer> quantities = new TreeMap<>();
         if (items == null) {
-            return;
+            return quantities;
         }
         for (DcrSampleItem item : items) {
             if (item == null || item.getQuantity() == null) {
@@ -92,24 +199,15 @@ public class DcrService {
             if (qty <= 0) {
                 continue;
             }
-            mrStockService.adjustStockOrThrow(item.getProductId(), qty);
+            quantities.merge(item.getProductId(), qty, Integer::sum);
         }
+        return quantities;
     }
 
-    private void deductStock(List<DcrSampleItem> items) {
-        if (items == null) {
-            return;
-        }
-        for (DcrSampleItem item : items) {
-            if (item == null || item.getQuantity() == null) {
-                continue;
-            }
-            int qty = item.getQuantity();
-            if (qty <= 0) {
-                continue;
-            }
-            mrStockService.adjustStockOrThrow(item.getProductId(), -qty);
-        }
+    private static Map<String, Integer> negate(Map<String, Integer> quantities) {
+        Map<String, Integer> negated = new TreeMap<>();
+        quantities.forEach((productId, qty) -> negated.put(productId, -qty));
+        return negated;
     }
 
     private void applyFields(
@@ -149,6 +247,10 @@ public class DcrService {
         report.setSamplesGiven(mapped);
     }
 
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
     private DcrReport getEntity(Long reportId) {
         Objects.requireNonNull(reportId, "reportId is required");
         return dcrRepository.findById(reportId)
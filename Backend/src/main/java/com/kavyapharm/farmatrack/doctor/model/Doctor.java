@@ -1,14 +1,16 @@
 package com.kavyapharm.farmatrack.doctor.model;
 
+import com.kavyapharm.farmatrack.common.EmailNormalizer;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "app_doctor")
+@Table(name = "app_doctor", indexes = @Index(name = "idx_doctor_email_normalized", columnList = "emailNormalized"))
 public class Doctor {
 
     @Id
@@ -29,6 +31,8 @@ public class Doctor {
     @Column(nullable = false)
     private String email;
 
+    private String emailNormalized;
+
     @Column(nullable = false)
     private String clinicName;
 
@@ -59,7 +63,12 @@ public class Doctor {
     public void setPhone(String phone) { this.phone = phone; }
 
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailNormalized = EmailNormalizer.normalize(email);
+    }
+
+    public String getEmailNormalized() { return emailNormalized; }
 
     public String getClinicName() { return clinicName; }
     public void setClinicName(String clinicName) { this.clinicName = clinicName; }
@@ -1,10 +1,23 @@
 package com.kavyapharm.farmatrack.doctor.repository;
 
+import com.kavyapharm.farmatrack.common.EmailNormalizer;
 import com.kavyapharm.farmatrack.doctor.model.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
-	Optional<Doctor> findByEmailIgnoreCase(String email);
+	Optional<Doctor> findFirstByEmailNormalized(String emailNormalized);
+
+	default Optional<Doctor> findByEmailIgnoreCase(String email) {
+		return findFirstByEmailNormalized(EmailNormalizer.normalize(email));
+	}
+
+	@Transactional
+	@Modifying
+	@Query("update Doctor d set d.emailNormalized = lower(trim(d.email)) where d.emailNormalized is null")
+	int backfillEmailNormalized();
 }
@@ -1,10 +1,12 @@
 package com.kavyapharm.farmatrack.expense.controller;
 
+import com.kavyapharm.farmatrack.common.StreamingExporter;
 import com.kavyapharm.farmatrack.expense.dto.CreateExpenseRequest;
 import com.kavyapharm.farmatrack.expense.dto.ExpenseResponse;
 import com.kavyapharm.farmatrack.expense.dto.UpdateExpenseRequest;
 import com.kavyapharm.farmatrack.expense.service.ExpenseService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,8 +16,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -23,9 +28,11 @@ import java.util.List;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final StreamingExporter streamingExporter;
 
-    public ExpenseController(ExpenseService expenseService) {
+    public ExpenseController(ExpenseService expenseService, StreamingExporter streamingExporter) {
         this.expenseService = expenseService;
+        this.streamingExporter = streamingExporter;
     }
 
     @GetMapping
@@ -33,6 +40,16 @@ public class ExpenseController {
         return expenseService.list();
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        StreamingExporter.checkRange(from, to);
+        return streamingExporter.export("expenses", format, ExpenseService.EXPORT_COLUMNS, sink -> expenseService.export(from, to, sink));
+    }
+
     @GetMapping("/{id}")
     public ExpenseResponse get(@PathVariable Long id) {
         return expenseService.get(id);
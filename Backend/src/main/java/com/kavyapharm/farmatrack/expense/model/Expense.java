@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 
@@ -15,7 +16,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "app_expense")
+@Table(
+        name = "app_expense",
+        indexes = @Index(name = "idx_expense_expense_date", columnList = "expenseDate, id")
+)
 public class Expense {
 
     @Id
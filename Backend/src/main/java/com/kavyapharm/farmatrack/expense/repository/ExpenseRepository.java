@@ -1,7 +1,56 @@
 package com.kavyapharm.farmatrack.expense.repository;
 
+import com.kavyapharm.farmatrack.common.StreamingExporter;
 import com.kavyapharm.farmatrack.expense.model.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
 
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+
+    // One row per attachment (or one row without), ordered so an expense's rows are adjacent.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingExporter.FETCH_SIZE))
+    @Query("""
+            select e.id as id, e.mrName as mrName, e.category as category, e.amount as amount,
+                   e.description as description, e.status as status, e.submittedDate as submittedDate,
+                   e.expenseDate as expenseDate, e.approvedBy as approvedBy, e.approvedDate as approvedDate,
+                   e.rejectionReason as rejectionReason, a as attachment
+            from Expense e left join e.attachments a
+            where (:from is null or e.expenseDate >= :from)
+              and (:to is null or e.expenseDate <= :to)
+            order by e.expenseDate, e.id
+            """)
+    Stream<ExportRow> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    interface ExportRow {
+        Long getId();
+
+        String getMrName();
+
+        String getCategory();
+
+        Double getAmount();
+
+        String getDescription();
+
+        String getStatus();
+
+        LocalDate getSubmittedDate();
+
+        LocalDate getExpenseDate();
+
+        String getApprovedBy();
+
+        LocalDate getApprovedDate();
+
+        String getRejectionReason();
+
+        String getAttachment();
+    }
 }
@@ -1,5 +1,8 @@
 package com.kavyapharm.farmatrack.expense.service;
 
+import com.kavyapharm.farmatrack.common.ExportColumn;
+import com.kavyapharm.farmatrack.common.StreamingExporter;
+import com.kavyapharm.farmatrack.common.UploadBlobService;
 import com.kavyapharm.farmatrack.expense.dto.CreateExpenseRequest;
 import com.kavyapharm.farmatrack.expense.dto.ExpenseResponse;
 import com.kavyapharm.farmatrack.expense.dto.UpdateExpenseRequest;
@@ -7,19 +10,39 @@ import com.kavyapharm.farmatrack.expense.model.Expense;
 import com.kavyapharm.farmatrack.expense.repository.ExpenseRepository;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ExpenseService {
 
+    public static final List<ExportColumn<ExpenseResponse>> EXPORT_COLUMNS = List.of(
+            new ExportColumn<>("id", ExpenseResponse::id),
+            new ExportColumn<>("expenseDate", ExpenseResponse::expenseDate),
+            new ExportColumn<>("mrName", ExpenseResponse::mrName),
+            new ExportColumn<>("category", ExpenseResponse::category),
+            new ExportColumn<>("amount", ExpenseResponse::amount),
+            new ExportColumn<>("description", ExpenseResponse::description),
+            new ExportColumn<>("status", ExpenseResponse::status),
+            new ExportColumn<>("submittedDate", ExpenseResponse::submittedDate),
+            new ExportColumn<>("attachments", e -> String.join(";", e.attachments())),
+            new ExportColumn<>("approvedBy", ExpenseResponse::approvedBy),
+            new ExportColumn<>("approvedDate", ExpenseResponse::approvedDate),
+            new ExportColumn<>("rejectionReason", ExpenseResponse::rejectionReason)
+    );
+
     private final ExpenseRepository expenseRepository;
+    private final UploadBlobService uploadBlobService;
 
-    public ExpenseService(ExpenseRepository expenseRepository) {
+    public ExpenseService(ExpenseRepository expenseRepository, UploadBlobService uploadBlobService) {
         this.expenseRepository = expenseRepository;
+        this.uploadBlobService = uploadBlobService;
     }
 
     public List<ExpenseResponse> list() {
@@ -27,11 +50,52 @@ public class ExpenseService {
                 .stream().map(ExpenseService::toResponse).toList();
     }
 
+    // Expenses are emitted one at a time as the cursor moves past their last attachment row.
+    @Transactional(readOnly = true)
+    public void export(LocalDate from, LocalDate to, Consumer<ExpenseResponse> sink) {
+        StreamingExporter.checkRange(from, to);
+        try (Stream<ExpenseRepository.ExportRow> rows = expenseRepository.streamForExport(from, to)) {
+            ExpenseRepository.ExportRow current = null;
+            List<String> attachments = new ArrayList<>();
+            for (ExpenseRepository.ExportRow row : (Iterable<ExpenseRepository.ExportRow>) rows::iterator) {
+                if (current != null && !current.getId().equals(row.getId())) {
+                    sink.accept(toResponse(current, attachments));
+                    attachments = new ArrayList<>();
+                }
+                current = row;
+                if (row.getAttachment() != null) {
+                    attachments.add(row.getAttachment());
+                }
+            }
+            if (current != null) {
+                sink.accept(toResponse(current, attachments));
+            }
+        }
+    }
+
+    private static ExpenseResponse toResponse(ExpenseRepository.ExportRow row, List<String> attachments) {
+        return new ExpenseResponse(
+                row.getId(),
+                row.getMrName(),
+                row.getCategory(),
+                row.getAmount(),
+                row.getDescription(),
+                row.getStatus(),
+                row.getSubmittedDate(),
+                row.getExpenseDate(),
+                attachments,
+                row.getApprovedBy(),
+                row.getApprovedDate(),
+                row.getRejectionReason()
+        );
+    }
+
     public ExpenseResponse get(Long id) {
         Objects.requireNonNull(id, "id is required");
         return toResponse(getEntity(id));
     }
 
+    @Transactional
     public ExpenseResponse create(CreateExpenseRequest request) {
         LocalDate expenseDate = request.expenseDate() == null ? LocalDate.now() : request.expenseDate();
 
@@ -44,10 +108,12 @@ public class ExpenseService {
         expense.setSubmittedDate(LocalDate.now());
         expense.setExpenseDate(expenseDate);
         expense.setAttachments(request.attachments() == null ? new ArrayList<>() : new ArrayList<>(request.attachments()));
+        uploadBlobService.updateReferences(List.of(), expense.getAttachments());
 
         return toResponse(expenseRepository.save(expense));
     }
 
+    @Transactional
     public ExpenseResponse update(Long id, UpdateExpenseRequest request) {
         Expense expense = getEntity(id);
 
@@ -61,17 +127,20 @@ public class ExpenseService {
         expense.setApprovedDate(request.approvedDate());
         expense.setRejectionReason(request.rejectionReason());
 
+        List<String> previousAttachments = List.copyOf(expense.getAttachments());
         expense.setAttachments(request.attachments() == null ? new ArrayList<>() : new ArrayList<>(request.attachments()));
+        uploadBlobService.updateReferences(previousAttachments, expense.getAttachments());
 
         return toResponse(expenseRepository.save(expense));
     }
 
+    @Transactional
     public void delete(Long id) {
         Objects.requireNonNull(id, "id is required");
-        if (!expenseRepository.existsById(id)) {
-            return;
-        }
-        expenseRepository.deleteById(id);
+        expenseRepository.findById(id).ifPresent(expense -> {
+            uploadBlobService.updateReferences(expense.getAttachments(), List.of());
+            expenseRepository.delete(expense);
+        });
     }
 
     private Expense getEntity(Long id) {
@@ -20,12 +20,10 @@ public class MrDashboardService {
     }
 
     public MrDashboardResponse get() {
-        ensureInitialized();
         return toResponse(getEntity());
     }
 
     public MrDashboardResponse update(UpdateMrDashboardRequest request) {
-        ensureInitialized();
         MrDashboard dashboard = getEntity();
 
         if (request.sales() != null) {
@@ -47,7 +45,7 @@ public class MrDashboardService {
         return toResponse(repository.save(Objects.requireNonNull(dashboard, "dashboard is required")));
     }
 
-    private void ensureInitialized() {
+    public void seedDemoData() {
         if (repository.existsById(SINGLETON_ID)) {
             return;
         }
@@ -5,7 +5,6 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 public record CreateMrExpenseRequest(
-        Long id,
         @NotBlank(message = "Category is required") String category,
         @NotNull(message = "Amount is required") @Positive(message = "Amount must be > 0") Double amount,
         @NotBlank(message = "Date is required") String date,
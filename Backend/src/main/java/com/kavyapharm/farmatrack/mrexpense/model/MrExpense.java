@@ -3,11 +3,15 @@ package com.kavyapharm.farmatrack.mrexpense.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "app_mr_expense")
-public class MrExpense {
+public class MrExpense implements Persistable<Long> {
 
     @Id
     private Long id;
@@ -29,9 +33,14 @@ public class MrExpense {
     @Column(nullable = false)
     private String status;
 
+    // New expenses already carry their id; lets save() insert without selecting first.
+    @Transient
+    private boolean isNew = true;
+
     public MrExpense() {
     }
 
+    @Override
     public Long getId() {
         return id;
     }
@@ -87,4 +96,15 @@ public class MrExpense {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
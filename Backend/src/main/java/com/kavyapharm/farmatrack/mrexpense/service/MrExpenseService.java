@@ -1,5 +1,7 @@
 package com.kavyapharm.farmatrack.mrexpense.service;
 
+import com.kavyapharm.farmatrack.common.IdGenerator;
+import com.kavyapharm.farmatrack.common.UploadBlobService;
 import com.kavyapharm.farmatrack.mrexpense.dto.CreateMrExpenseRequest;
 import com.kavyapharm.farmatrack.mrexpense.dto.MrExpenseResponse;
 import com.kavyapharm.farmatrack.mrexpense.dto.UpdateMrExpenseRequest;
@@ -7,6 +9,7 @@ import com.kavyapharm.farmatrack.mrexpense.model.MrExpense;
 import com.kavyapharm.farmatrack.mrexpense.repository.MrExpenseRepository;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
@@ -15,46 +18,45 @@ import java.util.Objects;
 public class MrExpenseService {
 
     private final MrExpenseRepository repository;
+    private final IdGenerator idGenerator;
+    private final UploadBlobService uploadBlobService;
 
-    public MrExpenseService(MrExpenseRepository repository) {
+    public MrExpenseService(MrExpenseRepository repository, IdGenerator idGenerator, UploadBlobService uploadBlobService) {
         this.repository = repository;
+        this.idGenerator = idGenerator;
+        this.uploadBlobService = uploadBlobService;
     }
 
     public List<MrExpenseResponse> list() {
-        ensureInitialized();
         return repository.findAll(Sort.by(Sort.Direction.DESC, "date").and(Sort.by(Sort.Direction.DESC, "id")))
                 .stream().map(MrExpenseService::toResponse).toList();
     }
 
     public MrExpenseResponse get(Long id) {
         Objects.requireNonNull(id, "id is required");
-        ensureInitialized();
         return toResponse(getEntity(id));
     }
 
+    @Transactional
     public MrExpenseResponse create(CreateMrExpenseRequest request) {
-        ensureInitialized();
-        long id = request.id() == null ? System.currentTimeMillis() : request.id();
-        if (repository.existsById(id)) {
-            id = System.currentTimeMillis();
-        }
-
         MrExpense expense = new MrExpense();
-        expense.setId(id);
+        expense.setId(idGenerator.nextId());
         expense.setCategory(request.category());
         expense.setAmount(request.amount());
         expense.setDate(request.date());
         expense.setDesc(request.desc());
         expense.setAttachment(request.attachment());
         expense.setStatus("Pending");
+        uploadBlobService.updateReferences(List.of(), references(expense));
 
         return toResponse(repository.save(expense));
     }
 
+    @Transactional
     public MrExpenseResponse update(Long id, UpdateMrExpenseRequest request) {
         Objects.requireNonNull(id, "id is required");
-        ensureInitialized();
         MrExpense expense = getEntity(id);
+        List<String> previousAttachments = references(expense);
 
         expense.setCategory(request.category());
         expense.setAmount(request.amount());
@@ -62,16 +64,22 @@ public class MrExpenseService {
         expense.setDesc(request.desc());
         expense.setAttachment(request.attachment());
         expense.setStatus(request.status());
+        uploadBlobService.updateReferences(previousAttachments, references(expense));
 
         return toResponse(repository.save(expense));
     }
 
+    @Transactional
     public void delete(Long id) {
         Objects.requireNonNull(id, "id is required");
-        if (!repository.existsById(id)) {
-            return;
-        }
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(expense -> {
+            uploadBlobService.updateReferences(references(expense), List.of());
+            repository.delete(expense);
+        });
+    }
+
+    private static List<String> references(MrExpense expense) {
+        return expense.getAttachment() == null ? List.of() : List.of(expense.getAttachment());
     }
 
     private MrExpense getEntity(Long id) {
@@ -80,7 +88,7 @@ public class MrExpenseService {
                 .orElseThrow(() -> new IllegalArgumentException("MR expense not found"));
     }
 
-    private void ensureInitialized() {
+    public void seedDemoData() {
         if (repository.count() > 0) {
             return;
         }
@@ -1,11 +1,23 @@
 package com.kavyapharm.farmatrack.mrstock.controller;
 
+import com.kavyapharm.farmatrack.common.StreamingExporter;
+import com.kavyapharm.farmatrack.mrstock.dto.IssueStockRequest;
 import com.kavyapharm.farmatrack.mrstock.dto.MrStockItemResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.MrStockTotalResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.StockBalanceResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.StockMovementPageResponse;
 import com.kavyapharm.farmatrack.mrstock.dto.UpdateMrStockItemRequest;
 import com.kavyapharm.farmatrack.mrstock.service.MrStockService;
+import com.kavyapharm.farmatrack.mrstock.service.StockLedgerService;
+import com.kavyapharm.farmatrack.mrstock.service.StockOwnerResolver;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -13,23 +25,82 @@ import java.util.List;
 public class MrStockController {
 
     private final MrStockService mrStockService;
+    private final StockLedgerService stockLedgerService;
+    private final StockOwnerResolver stockOwnerResolver;
+    private final StreamingExporter streamingExporter;
 
-    public MrStockController(MrStockService mrStockService) {
+    public MrStockController(
+            MrStockService mrStockService,
+            StockLedgerService stockLedgerService,
+            StockOwnerResolver stockOwnerResolver,
+            StreamingExporter streamingExporter) {
         this.mrStockService = mrStockService;
+        this.stockLedgerService = stockLedgerService;
+        this.stockOwnerResolver = stockOwnerResolver;
+        this.streamingExporter = streamingExporter;
     }
 
+    // MRs always see their own stock; managers and admins see the central pool or pass mrId.
     @GetMapping
-    public List<MrStockItemResponse> list() {
-        return mrStockService.list();
+    public List<MrStockItemResponse> list(@RequestParam(required = false) Long mrId) {
+        return mrStockService.list(stockOwnerResolver.resolve(mrId));
+    }
+
+    @GetMapping("/totals")
+    public List<MrStockTotalResponse> totals(@RequestParam(required = false) String territory) {
+        return mrStockService.totals(territory);
+    }
+
+    @GetMapping("/movements/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        StreamingExporter.checkRange(from, to);
+        return streamingExporter.export("stock-movements", format, StockLedgerService.EXPORT_COLUMNS, sink -> stockLedgerService.export(from, to, sink));
     }
 
     @GetMapping("/{id}")
-    public MrStockItemResponse get(@PathVariable String id) {
-        return mrStockService.get(id);
+    public MrStockItemResponse get(@PathVariable String id, @RequestParam(required = false) Long mrId) {
+        return mrStockService.get(stockOwnerResolver.resolve(mrId), id);
+    }
+
+    @GetMapping("/{id}/movements")
+    public StockMovementPageResponse movements(
+            @PathVariable String id,
+            @RequestParam(required = false) Long mrId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return stockLedgerService.page(stockOwnerResolver.resolve(mrId), id, cursor, limit);
+    }
+
+    @GetMapping("/{id}/balance")
+    public StockBalanceResponse balance(
+            @PathVariable String id,
+            @RequestParam(required = false) Long mrId,
+            @RequestParam(required = false) Instant asOf
+    ) {
+        return stockLedgerService.balanceAt(stockOwnerResolver.resolve(mrId), id, asOf);
+    }
+
+    // Managers and admins hand central stock to an MR; the MR's DCRs then draw only on what was issued or received.
+    @PostMapping("/{id}/issue")
+    public MrStockItemResponse issue(
+            @PathVariable String id,
+            @RequestParam Long mrId,
+            @Valid @RequestBody IssueStockRequest request
+    ) {
+        return mrStockService.issue(stockOwnerResolver.issueTarget(mrId), id, request.quantity());
     }
 
     @PutMapping("/{id}")
-    public MrStockItemResponse update(@PathVariable String id, @Valid @RequestBody UpdateMrStockItemRequest request) {
-        return mrStockService.update(id, request);
+    public MrStockItemResponse update(
+            @PathVariable String id,
+            @RequestParam(required = false) Long mrId,
+            @Valid @RequestBody UpdateMrStockItemRequest request
+    ) {
+        return mrStockService.update(stockOwnerResolver.resolve(mrId), id, request);
     }
 }
@@ -0,0 +1,9 @@
+package com.kavyapharm.farmatrack.mrstock.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record IssueStockRequest(
+        @NotNull(message = "Quantity is required") @Positive(message = "Quantity must be > 0") Integer quantity
+) {
+}
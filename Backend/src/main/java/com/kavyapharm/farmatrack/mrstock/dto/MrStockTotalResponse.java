@@ -0,0 +1,9 @@
+package com.kavyapharm.farmatrack.mrstock.dto;
+
+public record MrStockTotalResponse(
+        String productId,
+        String name,
+        long totalStock,
+        long holders
+) {
+}
@@ -0,0 +1,11 @@
+package com.kavyapharm.farmatrack.mrstock.dto;
+
+import java.time.Instant;
+
+public record StockBalanceResponse(
+        Long mrId,
+        String productId,
+        long balance,
+        Instant asOf
+) {
+}
@@ -0,0 +1,9 @@
+package com.kavyapharm.farmatrack.mrstock.dto;
+
+import java.util.List;
+
+public record StockMovementPageResponse(
+        List<StockMovementResponse> items,
+        Long nextCursor
+) {
+}
@@ -0,0 +1,16 @@
+package com.kavyapharm.farmatrack.mrstock.dto;
+
+import com.kavyapharm.farmatrack.mrstock.model.StockMovementType;
+
+import java.time.Instant;
+
+public record StockMovementResponse(
+        Long id,
+        Long mrId,
+        String productId,
+        Integer delta,
+        StockMovementType type,
+        String reference,
+        Instant occurredAt
+) {
+}
@@ -3,15 +3,38 @@ package com.kavyapharm.farmatrack.mrstock.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+import org.springframework.data.domain.Persistable;
 
+// One row per (MR, product), so stock writes from different MRs never contend on a row.
+// mrId 0 is the central pool managed from the admin dashboards.
 @Entity
-@Table(name = "app_mr_stock")
-public class MrStockItem {
+@Table(
+        name = "app_mr_stock_item",
+        uniqueConstraints = @UniqueConstraint(name = "uk_mr_stock_mr_product", columnNames = {"mrId", "productId"}),
+        indexes = {
+                // Covering indexes for the rollups: totals (name included) are read from the index without touching the rows.
+                @Index(name = "idx_mr_stock_product_totals", columnList = "productId, stock, name"),
+                @Index(name = "idx_mr_stock_territory_product_totals", columnList = "territory, productId, stock, name")
+        }
+)
+public class MrStockItem implements Persistable<Long> {
 
     @Id
-    @Column(length = 20)
-    private String id;
+    private Long id;
+
+    @Column(nullable = false)
+    private Long mrId;
+
+    @Column(nullable = false, length = 20)
+    private String productId;
+
+    private String territory;
 
     @Column(nullable = false)
     private String name;
@@ -19,17 +42,45 @@ public class MrStockItem {
     @Column(nullable = false)
     private Integer stock;
 
+    @Transient
+    private boolean isNew = true;
+
     public MrStockItem() {
     }
 
-    public String getId() {
+    @Override
+    public Long getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(Long id) {
         this.id = id;
     }
 
+    public Long getMrId() {
+        return mrId;
+    }
+
+    public void setMrId(Long mrId) {
+        this.mrId = mrId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public String getTerritory() {
+        return territory;
+    }
+
+    public void setTerritory(String territory) {
+        this.territory = territory;
+    }
+
     public String getName() {
         return name;
     }
@@ -45,4 +96,15 @@ public class MrStockItem {
     public void setStock(Integer stock) {
         this.stock = stock;
     }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
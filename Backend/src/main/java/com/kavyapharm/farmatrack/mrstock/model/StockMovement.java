@@ -0,0 +1,132 @@
+package com.kavyapharm.farmatrack.mrstock.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// Append-only: rows are inserted with time-ordered ids and never updated or deleted.
+@Entity
+@Table(
+        name = "app_stock_movement",
+        indexes = {
+                @Index(name = "idx_stock_movement_mr_product_id", columnList = "mrId, productId, id"),
+                @Index(name = "idx_stock_movement_mr_product_seq", columnList = "mrId, productId, seq")
+        }
+)
+public class StockMovement implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    // Assigned by the database on insert. A row's movements are inserted while its stock row is locked, so their
+    // seq follows commit order even when the ids come from instances whose clocks disagree.
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint not null auto_increment unique")
+    private Long seq;
+
+    @Column(nullable = false)
+    private Long mrId;
+
+    @Column(nullable = false, length = 20)
+    private String productId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockMovementType type;
+
+    @Column(length = 64)
+    private String reference;
+
+    @Column(nullable = false)
+    private Instant occurredAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public StockMovement() {
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Long getMrId() {
+        return mrId;
+    }
+
+    public void setMrId(Long mrId) {
+        this.mrId = mrId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public StockMovementType getType() {
+        return type;
+    }
+
+    public void setType(StockMovementType type) {
+        this.type = type;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,10 @@
+package com.kavyapharm.farmatrack.mrstock.model;
+
+public enum StockMovementType {
+    RECEIPT,
+    SAMPLE_GIVEN,
+    REFUND,
+    ADJUSTMENT,
+    // Central pool to an MR partition: negative on the central side, positive on the MR side.
+    ISSUE
+}
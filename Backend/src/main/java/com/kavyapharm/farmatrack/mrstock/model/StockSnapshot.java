@@ -0,0 +1,121 @@
+package com.kavyapharm.farmatrack.mrstock.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// Balance of one MR's product over its movements with seq <= lastSeq. lastMovementId is the largest id among
+// them, so the snapshot holds for any instant at or after that id. Rows from before seq existed have no lastSeq
+// and are ignored.
+@Entity
+@Table(
+        name = "app_stock_snapshot",
+        indexes = {
+                @Index(name = "idx_stock_snapshot_mr_product_movement", columnList = "mrId, productId, lastMovementId"),
+                @Index(name = "idx_stock_snapshot_seq", columnList = "lastSeq")
+        }
+)
+public class StockSnapshot implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long mrId;
+
+    @Column(nullable = false, length = 20)
+    private String productId;
+
+    private Long lastSeq;
+
+    @Column(nullable = false)
+    private Long lastMovementId;
+
+    @Column(nullable = false)
+    private Long balance;
+
+    @Column(nullable = false)
+    private Instant takenAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public StockSnapshot() {
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getMrId() {
+        return mrId;
+    }
+
+    public void setMrId(Long mrId) {
+        this.mrId = mrId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public Long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(Long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+
+    public Long getLastMovementId() {
+        return lastMovementId;
+    }
+
+    public void setLastMovementId(Long lastMovementId) {
+        this.lastMovementId = lastMovementId;
+    }
+
+    public Long getBalance() {
+        return balance;
+    }
+
+    public void setBalance(Long balance) {
+        this.balance = balance;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+
+    public void setTakenAt(Instant takenAt) {
+        this.takenAt = takenAt;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
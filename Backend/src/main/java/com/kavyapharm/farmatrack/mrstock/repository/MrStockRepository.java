@@ -1,7 +1,85 @@
 package com.kavyapharm.farmatrack.mrstock.repository;
 
 import com.kavyapharm.farmatrack.mrstock.model.MrStockItem;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface MrStockRepository extends JpaRepository<MrStockItem, String> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MrStockRepository extends JpaRepository<MrStockItem, Long>, MrStockRepositoryCustom {
+
+    List<MrStockItem> findByMrIdOrderByProductIdAsc(Long mrId);
+
+    Optional<MrStockItem> findByMrIdAndProductId(Long mrId, String productId);
+
+    boolean existsByMrIdAndProductId(Long mrId, String productId);
+
+    boolean existsByMrId(Long mrId);
+
+    @Query("select max(s.name) from MrStockItem s where s.productId = :productId")
+    Optional<String> findProductName(@Param("productId") String productId);
+
+    @Modifying
+    @Query("update MrStockItem s set s.stock = s.stock + :delta where s.mrId = :mrId and s.productId = :productId and s.stock + :delta >= 0")
+    int adjustStock(@Param("mrId") Long mrId, @Param("productId") String productId, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update MrStockItem s set s.name = :name, s.stock = :stock where s.mrId = :mrId and s.productId = :productId")
+    int updateNameAndStock(@Param("mrId") Long mrId, @Param("productId") String productId, @Param("name") String name, @Param("stock") int stock);
+
+    // Creates the owner's row at zero stock unless it already exists; concurrent callers cannot collide on the unique key.
+    @Modifying
+    @Query(value = "insert ignore into app_mr_stock_item (id, mr_id, product_id, territory, name, stock) "
+            + "values (:id, :mrId, :productId, :territory, :name, 0)", nativeQuery = true)
+    int insertIfMissing(@Param("id") long id, @Param("mrId") long mrId, @Param("productId") String productId,
+                        @Param("territory") String territory, @Param("name") String name);
+
+    @Modifying
+    @Query(value = "insert ignore into app_mr_stock_item (id, mr_id, product_id, territory, name, stock) "
+            + "values (:id, 0, :productId, null, :name, :stock)", nativeQuery = true)
+    int insertCentralIfMissing(@Param("id") long id, @Param("productId") String productId,
+                               @Param("name") String name, @Param("stock") int stock);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s.mrId as mrId, s.productId as productId, s.stock as stock from MrStockItem s "
+            + "where s.mrId = :mrId and s.productId in :productIds order by s.productId")
+    List<StockLevel> lockStockLevels(@Param("mrId") Long mrId, @Param("productIds") Collection<String> productIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s.mrId as mrId, s.productId as productId, s.stock as stock from MrStockItem s "
+            + "where not exists (select m.id from StockMovement m where m.mrId = s.mrId and m.productId = s.productId) "
+            + "order by s.mrId, s.productId")
+    List<StockLevel> lockStockLevelsWithoutMovements();
+
+    @Query("select s.productId as productId, max(s.name) as name, sum(s.stock) as totalStock, count(s) as holders "
+            + "from MrStockItem s group by s.productId order by s.productId")
+    List<StockTotal> sumByProduct();
+
+    @Query("select s.productId as productId, max(s.name) as name, sum(s.stock) as totalStock, count(s) as holders "
+            + "from MrStockItem s where s.territory = :territory group by s.productId order by s.productId")
+    List<StockTotal> sumByProductInTerritory(@Param("territory") String territory);
+
+    interface StockLevel {
+        Long getMrId();
+
+        String getProductId();
+
+        Integer getStock();
+    }
+
+    interface StockTotal {
+        String getProductId();
+
+        String getName();
+
+        Long getTotalStock();
+
+        Long getHolders();
+    }
 }
@@ -0,0 +1,15 @@
+package com.kavyapharm.farmatrack.mrstock.repository;
+
+import java.util.List;
+import java.util.Map;
+
+public interface MrStockRepositoryCustom {
+
+    int applyDeltas(Long mrId, Map<String, Integer> deltas);
+
+    // Rows of the product-keyed app_mr_stock table used before stock was partitioned per MR; empty once it is gone.
+    List<LegacyStock> findLegacyStock();
+
+    record LegacyStock(String productId, String name, int stock) {
+    }
+}
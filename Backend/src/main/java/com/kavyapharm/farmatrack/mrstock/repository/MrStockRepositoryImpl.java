@@ -0,0 +1,76 @@
+package com.kavyapharm.farmatrack.mrstock.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MrStockRepositoryImpl implements MrStockRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int applyDeltas(Long mrId, Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        // One UPDATE for the whole batch: stock = stock + CASE productId WHEN ?0 THEN ?1 ... END.
+        StringBuilder jpql = new StringBuilder("update MrStockItem s set s.stock = s.stock + case s.productId");
+        List<String> ids = new ArrayList<>(deltas.size());
+        List<Integer> values = new ArrayList<>(deltas.size());
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            jpql.append(" when :id").append(i).append(" then :delta").append(i);
+            ids.add(entry.getKey());
+            values.add(entry.getValue());
+            i++;
+        }
+        jpql.append(" else 0 end where s.mrId = :mrId and s.productId in :ids");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        for (int j = 0; j < ids.size(); j++) {
+            query.setParameter("id" + j, ids.get(j));
+            query.setParameter("delta" + j, values.get(j));
+        }
+        query.setParameter("mrId", mrId);
+        query.setParameter("ids", ids);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public List<LegacyStock> findLegacyStock() {
+        if (!legacyTableExists()) {
+            return List.of();
+        }
+        List<LegacyStock> rows = new ArrayList<>();
+        for (Object row : entityManager.createNativeQuery("select id, name, stock from app_mr_stock order by id").getResultList()) {
+            Object[] columns = (Object[]) row;
+            rows.add(new LegacyStock((String) columns[0], (String) columns[1],
+                    columns[2] == null ? 0 : ((Number) columns[2]).intValue()));
+        }
+        return rows;
+    }
+
+    private boolean legacyTableExists() {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String name = metaData.storesUpperCaseIdentifiers() ? "APP_MR_STOCK" : "app_mr_stock";
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), name, new String[]{"TABLE"})) {
+                while (tables.next()) {
+                    if (name.equals(tables.getString("TABLE_NAME"))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.kavyapharm.farmatrack.mrstock.repository;
+
+import com.kavyapharm.farmatrack.common.StreamingExporter;
+import com.kavyapharm.farmatrack.mrstock.dto.StockMovementResponse;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    @Query("select m from StockMovement m where m.mrId = :mrId and m.productId = :productId and (:cursor is null or m.id < :cursor) order by m.id desc")
+    List<StockMovement> findPage(@Param("mrId") Long mrId, @Param("productId") String productId, @Param("cursor") Long cursor, Limit limit);
+
+    // Range scan over the movements inserted since the previous snapshot run.
+    @Query("select distinct m.mrId as mrId, m.productId as productId from StockMovement m "
+            + "where m.seq > :afterSeq order by m.mrId, m.productId")
+    List<StockKey> findMovedSince(@Param("afterSeq") long afterSeq);
+
+    @Query("select max(m.seq) as seq, max(m.id) as id from StockMovement m "
+            + "where m.mrId = :mrId and m.productId = :productId and m.seq > :afterSeq")
+    MovementMark findMark(@Param("mrId") Long mrId, @Param("productId") String productId, @Param("afterSeq") long afterSeq);
+
+    // Movements past the snapshot (by seq) that were recorded by the instant (by id).
+    @Query("select coalesce(sum(m.delta), 0) from StockMovement m "
+            + "where m.mrId = :mrId and m.productId = :productId and m.seq > :afterSeq and m.id <= :upTo")
+    long sumForProduct(@Param("mrId") Long mrId, @Param("productId") String productId, @Param("afterSeq") long afterSeq, @Param("upTo") long upTo);
+
+    // Date filters arrive as id bounds, so the export walks the primary key.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingExporter.FETCH_SIZE))
+    @Query("""
+            select new com.kavyapharm.farmatrack.mrstock.dto.StockMovementResponse(m.id, m.mrId, m.productId, m.delta, m.type, m.reference, m.occurredAt)
+            from StockMovement m
+            where m.id >= :fromId and m.id < :toId
+            order by m.id
+            """)
+    Stream<StockMovementResponse> streamForExport(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    interface StockKey {
+        Long getMrId();
+
+        String getProductId();
+    }
+
+    interface MovementMark {
+        Long getSeq();
+
+        Long getId();
+    }
+}
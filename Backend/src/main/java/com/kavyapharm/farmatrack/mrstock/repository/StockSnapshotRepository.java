@@ -0,0 +1,23 @@
+package com.kavyapharm.farmatrack.mrstock.repository;
+
+import com.kavyapharm.farmatrack.mrstock.model.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    @Query("select max(s.lastSeq) from StockSnapshot s")
+    Long findLastSeq();
+
+    Optional<StockSnapshot> findFirstByMrIdAndProductIdAndLastSeqNotNullAndLastMovementIdLessThanEqualOrderByLastMovementIdDescLastSeqDesc(
+            Long mrId, String productId, Long lastMovementId);
+
+    @Query("select s from StockSnapshot s where s.mrId in :mrIds and s.productId in :productIds and s.lastSeq = "
+            + "(select max(s2.lastSeq) from StockSnapshot s2 where s2.mrId = s.mrId and s2.productId = s.productId)")
+    List<StockSnapshot> findLatest(@Param("mrIds") Collection<Long> mrIds, @Param("productIds") Collection<String> productIds);
+}
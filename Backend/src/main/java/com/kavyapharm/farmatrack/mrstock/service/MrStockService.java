@@ -1,95 +1,240 @@
 package com.kavyapharm.farmatrack.mrstock.service;
 
+import com.kavyapharm.farmatrack.common.IdGenerator;
 import com.kavyapharm.farmatrack.mrstock.dto.MrStockItemResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.MrStockTotalResponse;
 import com.kavyapharm.farmatrack.mrstock.dto.UpdateMrStockItemRequest;
 import com.kavyapharm.farmatrack.mrstock.model.MrStockItem;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovementType;
 import com.kavyapharm.farmatrack.mrstock.repository.MrStockRepository;
-import org.springframework.data.domain.Sort;
+import com.kavyapharm.farmatrack.mrstock.repository.MrStockRepositoryCustom;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 @Service
 public class MrStockService {
 
     private final MrStockRepository mrStockRepository;
+    private final StockLedgerService stockLedgerService;
+    private final IdGenerator idGenerator;
 
-    public MrStockService(MrStockRepository mrStockRepository) {
+    public MrStockService(MrStockRepository mrStockRepository, StockLedgerService stockLedgerService, IdGenerator idGenerator) {
         this.mrStockRepository = mrStockRepository;
+        this.stockLedgerService = stockLedgerService;
+        this.idGenerator = idGenerator;
     }
 
-    public List<MrStockItemResponse> list() {
-        ensureInitialized();
-        return mrStockRepository.findAll(Sort.by(Sort.Direction.ASC, "id"))
-                .stream().map(MrStockService::toResponse).toList();
+    // An MR sees only their own partition; the central pool is listed by managers and admins (no mrId).
+    public List<MrStockItemResponse> list(StockOwner owner) {
+        Objects.requireNonNull(owner, "owner is required");
+        return mrStockRepository.findByMrIdOrderByProductIdAsc(owner.mrId()).stream().map(MrStockService::toResponse).toList();
     }
 
-    public MrStockItemResponse get(String id) {
-        Objects.requireNonNull(id, "id is required");
-        ensureInitialized();
-        return toResponse(getEntity(id));
+    public MrStockItemResponse get(StockOwner owner, String productId) {
+        Objects.requireNonNull(productId, "productId is required");
+        return toResponse(getEntity(owner, productId));
     }
 
-    public MrStockItemResponse update(String id, UpdateMrStockItemRequest request) {
-        Objects.requireNonNull(id, "id is required");
-        ensureInitialized();
-        MrStockItem item = getEntity(id);
-        item.setName(request.name());
-        item.setStock(request.stock());
-        return toResponse(mrStockRepository.save(item));
+    // Sums across every MR (or one territory) by group-by over a covering index that also carries the name.
+    public List<MrStockTotalResponse> totals(String territory) {
+        List<MrStockRepository.StockTotal> totals = territory == null || territory.isBlank()
+                ? mrStockRepository.sumByProduct()
+                : mrStockRepository.sumByProductInTerritory(territory.trim());
+        return totals.stream()
+                .map(t -> new MrStockTotalResponse(t.getProductId(), t.getName(),
+                        t.getTotalStock() == null ? 0 : t.getTotalStock(), t.getHolders() == null ? 0 : t.getHolders()))
+                .toList();
     }
 
-    public void adjustStockOrThrow(String productId, int delta) {
+    @Transactional
+    public MrStockItemResponse update(StockOwner owner, String productId, UpdateMrStockItemRequest request) {
+        Objects.requireNonNull(owner, "owner is required");
         Objects.requireNonNull(productId, "productId is required");
-        ensureInitialized();
-        MrStockItem item = getEntity(productId);
+        // Lock first so the ledger records exactly the difference this edit made.
+        List<MrStockRepository.StockLevel> levels = mrStockRepository.lockStockLevels(owner.mrId(), List.of(productId));
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("Stock item not found");
+        }
+        Integer previous = levels.get(0).getStock();
+        mrStockRepository.updateNameAndStock(owner.mrId(), productId, request.name(), request.stock());
+        int delta = request.stock() - (previous == null ? 0 : previous);
+        if (delta != 0) {
+            stockLedgerService.record(owner, productId, delta, StockMovementType.ADJUSTMENT, null);
+        }
+        return new MrStockItemResponse(productId, request.name(), request.stock());
+    }
 
-        int current = item.getStock() == null ? 0 : item.getStock();
-        int next = current + delta;
-        if (next < 0) {
+    // Receipts may be the first stock an MR holds for a product, so the row is created on demand.
+    @Transactional
+    public void receive(StockOwner owner, String productId, int quantity, String reference) {
+        Objects.requireNonNull(owner, "owner is required");
+        Objects.requireNonNull(productId, "productId is required");
+        if (!isCentral(owner)) {
+            createRowIfMissing(owner, productId);
+        }
+        adjustStockOrThrow(owner, productId, quantity, StockMovementType.RECEIPT, reference);
+    }
+
+    // The only way central stock reaches an MR: the central row is decremented and the MR's row (created on
+    // their first issue) incremented in one transaction, both sides recorded as ISSUE movements. Central is
+    // always locked first, so concurrent issues to the same MR cannot deadlock.
+    @Transactional
+    public MrStockItemResponse issue(StockOwner owner, String productId, int quantity) {
+        Objects.requireNonNull(owner, "owner is required");
+        Objects.requireNonNull(productId, "productId is required");
+        if (isCentral(owner)) {
+            throw new IllegalArgumentException("Stock can only be issued to an MR");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be > 0");
+        }
+        adjustStockOrThrow(StockOwner.CENTRAL, productId, -quantity, StockMovementType.ISSUE, null);
+        createRowIfMissing(owner, productId);
+        adjustStockOrThrow(owner, productId, quantity, StockMovementType.ISSUE, null);
+        return get(owner, productId);
+    }
+
+    @Transactional
+    public void adjustStockOrThrow(StockOwner owner, String productId, int delta, StockMovementType type, String reference) {
+        Objects.requireNonNull(owner, "owner is required");
+        Objects.requireNonNull(productId, "productId is required");
+
+        // Single conditional UPDATE: concurrent adjustments serialize on the row lock and can never go negative.
+        if (mrStockRepository.adjustStock(owner.mrId(), productId, delta) == 0) {
+            if (!mrStockRepository.existsByMrIdAndProductId(owner.mrId(), productId)) {
+                throw new IllegalArgumentException("Stock item not found");
+            }
             throw new IllegalArgumentException("Insufficient stock for product " + productId);
         }
-        item.setStock(next);
-        mrStockRepository.save(item);
+        stockLedgerService.record(owner, productId, delta, type, reference);
     }
 
-    private MrStockItem getEntity(String id) {
-        Objects.requireNonNull(id, "id is required");
-        return mrStockRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Stock item not found"));
+    // Batches carry DCR sample changes: negative deltas were handed out, positive ones came back.
+    @Transactional
+    public void adjustBatch(StockOwner owner, Map<String, Integer> deltas, String reference) {
+        Objects.requireNonNull(owner, "owner is required");
+        Objects.requireNonNull(deltas, "deltas is required");
+
+        Map<String, Integer> effective = new TreeMap<>();
+        deltas.forEach((productId, delta) -> {
+            Objects.requireNonNull(productId, "productId is required");
+            if (delta != null && delta != 0) {
+                effective.merge(productId, delta, Integer::sum);
+            }
+        });
+        effective.values().removeIf(delta -> delta == 0);
+        if (effective.isEmpty()) {
+            return;
+        }
+
+        // Lock every affected row (in id order, so concurrent batches cannot deadlock), validate, then apply in one UPDATE.
+        // Only the owner's own partition is touched: an MR who runs short fails here and needs stock issued first.
+        Map<String, Integer> current = lockStockLevels(owner, effective.keySet());
+        if (current.isEmpty() && !isCentral(owner) && effective.values().stream().anyMatch(delta -> delta < 0)
+                && !mrStockRepository.existsByMrId(owner.mrId())) {
+            // The legacy stock all moved to the central pool, so an MR nothing has been issued or received to yet
+            // still hands out samples from it; their first issue or receipt switches them to their own partition.
+            adjustBatch(StockOwner.CENTRAL, effective, reference);
+            return;
+        }
+        if (current.size() < effective.size() && !isCentral(owner)) {
+            createRowsForRefunds(owner, effective, current);
+        }
+        for (Map.Entry<String, Integer> entry : effective.entrySet()) {
+            Integer stock = current.get(entry.getKey());
+            if (stock == null && isCentral(owner)) {
+                throw new IllegalArgumentException("Stock item not found");
+            }
+            if ((stock == null ? 0 : stock) + entry.getValue() < 0) {
+                throw new IllegalArgumentException("Insufficient stock for product " + entry.getKey());
+            }
+        }
+        mrStockRepository.applyDeltas(owner.mrId(), effective);
+        stockLedgerService.recordAll(owner, effective,
+                delta -> delta < 0 ? StockMovementType.SAMPLE_GIVEN : StockMovementType.REFUND, reference);
     }
 
-    private void ensureInitialized() {
-        if (mrStockRepository.count() > 0) {
+    // Samples from a DCR that predates the MR's partition come back into a row created for them, like a receipt.
+    private void createRowsForRefunds(StockOwner owner, Map<String, Integer> deltas, Map<String, Integer> current) {
+        List<String> missing = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0 && !current.containsKey(entry.getKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (missing.isEmpty()) {
             return;
         }
+        missing.forEach(productId -> createRowIfMissing(owner, productId));
+        current.putAll(lockStockLevels(owner, missing));
+    }
+
+    private void createRowIfMissing(StockOwner owner, String productId) {
+        if (!mrStockRepository.existsByMrIdAndProductId(owner.mrId(), productId)) {
+            String name = mrStockRepository.findProductName(productId).orElse(productId);
+            mrStockRepository.insertIfMissing(idGenerator.nextId(), owner.mrId(), productId, owner.territory(), name);
+        }
+    }
+
+    private Map<String, Integer> lockStockLevels(StockOwner owner, Collection<String> productIds) {
+        Map<String, Integer> levels = new HashMap<>();
+        for (MrStockRepository.StockLevel level : mrStockRepository.lockStockLevels(owner.mrId(), productIds)) {
+            levels.put(level.getProductId(), level.getStock() == null ? 0 : level.getStock());
+        }
+        return levels;
+    }
 
-        MrStockItem p1 = new MrStockItem();
-        p1.setId("P001");
-        p1.setName("Product X (500mg)");
-        p1.setStock(100);
+    private static boolean isCentral(StockOwner owner) {
+        return owner.mrId() == StockOwner.CENTRAL.mrId();
+    }
 
-        MrStockItem p2 = new MrStockItem();
-        p2.setId("P002");
-        p2.setName("Product Y Syrup (100ml)");
-        p2.setStock(100);
+    // Copies the product-keyed balances from before the per-MR partitioning into the central pool. Rows the
+    // central pool already has are left alone, so this runs once in effect and is a no-op on every later start.
+    @Transactional
+    public int migrateLegacyStock() {
+        int migrated = 0;
+        for (MrStockRepositoryCustom.LegacyStock row : mrStockRepository.findLegacyStock()) {
+            migrated += mrStockRepository.insertCentralIfMissing(idGenerator.nextId(), row.productId(), row.name(), row.stock());
+        }
+        return migrated;
+    }
 
-        MrStockItem p3 = new MrStockItem();
-        p3.setId("P003");
-        p3.setName("Product Z Cream");
-        p3.setStock(100);
+    private MrStockItem getEntity(StockOwner owner, String productId) {
+        Objects.requireNonNull(owner, "owner is required");
+        return mrStockRepository.findByMrIdAndProductId(owner.mrId(), productId)
+                .orElseThrow(() -> new IllegalArgumentException("Stock item not found"));
+    }
 
-        MrStockItem p4 = new MrStockItem();
-        p4.setId("P004");
-        p4.setName("Sample Kit A");
-        p4.setStock(100);
+    public void seedDemoData() {
+        if (mrStockRepository.count() > 0) {
+            return;
+        }
 
-        List<MrStockItem> seed = List.of(p1, p2, p3, p4);
+        List<MrStockItem> seed = List.of(
+                seed("P001", "Product X (500mg)"),
+                seed("P002", "Product Y Syrup (100ml)"),
+                seed("P003", "Product Z Cream"),
+                seed("P004", "Sample Kit A")
+        );
         mrStockRepository.saveAll(seed);
     }
 
+    private MrStockItem seed(String productId, String name) {
+        MrStockItem item = new MrStockItem();
+        item.setId(idGenerator.nextId());
+        item.setMrId(StockOwner.CENTRAL.mrId());
+        item.setProductId(productId);
+        item.setName(name);
+        item.setStock(100);
+        return item;
+    }
+
     public static MrStockItemResponse toResponse(MrStockItem item) {
-        return new MrStockItemResponse(item.getId(), item.getName(), item.getStock());
+        return new MrStockItemResponse(item.getProductId(), item.getName(), item.getStock());
     }
 }
@@ -0,0 +1,235 @@
+package com.kavyapharm.farmatrack.mrstock.service;
+
+import com.kavyapharm.farmatrack.common.AppliedMigrationRepository;
+import com.kavyapharm.farmatrack.common.ExportColumn;
+import com.kavyapharm.farmatrack.common.IdGenerator;
+import com.kavyapharm.farmatrack.common.StreamingExporter;
+import com.kavyapharm.farmatrack.mrstock.dto.StockBalanceResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.StockMovementPageResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.StockMovementResponse;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovement;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovementType;
+import com.kavyapharm.farmatrack.mrstock.model.StockSnapshot;
+import com.kavyapharm.farmatrack.mrstock.repository.MrStockRepository;
+import com.kavyapharm.farmatrack.mrstock.repository.StockMovementRepository;
+import com.kavyapharm.farmatrack.mrstock.repository.StockSnapshotRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Every stock change is appended here in the same transaction that moves MrStockItem.stock,
+// which stays the O(1) current balance. Snapshots fold the ledger periodically so a balance
+// at any past instant is one snapshot row plus the movements recorded after it.
+@Service
+public class StockLedgerService {
+
+    static final String OPENING_BALANCE = "OPENING_BALANCE";
+    private static final String OPENING_BALANCE_MIGRATION = "stock-ledger-opening-balances";
+
+    public static final List<ExportColumn<StockMovementResponse>> EXPORT_COLUMNS = List.of(
+            new ExportColumn<>("id", StockMovementResponse::id),
+            new ExportColumn<>("occurredAt", StockMovementResponse::occurredAt),
+            new ExportColumn<>("mrId", StockMovementResponse::mrId),
+            new ExportColumn<>("productId", StockMovementResponse::productId),
+            new ExportColumn<>("type", StockMovementResponse::type),
+            new ExportColumn<>("delta", StockMovementResponse::delta),
+            new ExportColumn<>("reference", StockMovementResponse::reference)
+    );
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final MrStockRepository mrStockRepository;
+    private final AppliedMigrationRepository appliedMigrationRepository;
+    private final IdGenerator idGenerator;
+
+    public StockLedgerService(
+            StockMovementRepository movementRepository,
+            StockSnapshotRepository snapshotRepository,
+            MrStockRepository mrStockRepository,
+            AppliedMigrationRepository appliedMigrationRepository,
+            IdGenerator idGenerator) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.mrStockRepository = mrStockRepository;
+        this.appliedMigrationRepository = appliedMigrationRepository;
+        this.idGenerator = idGenerator;
+    }
+
+    @Transactional
+    public void record(StockOwner owner, String productId, int delta, StockMovementType type, String reference) {
+        movementRepository.save(movement(owner.mrId(), productId, delta, type, reference, Instant.now()));
+    }
+
+    @Transactional
+    public void recordAll(StockOwner owner, Map<String, Integer> deltas, IntFunction<StockMovementType> typeOf, String reference) {
+        Instant now = Instant.now();
+        List<StockMovement> movements = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> movements.add(movement(owner.mrId(), productId, delta, typeOf.apply(delta), reference, now)));
+        movementRepository.saveAll(movements);
+    }
+
+    // Gives rows that predate the ledger (or were seeded directly) an opening movement, so ledger sums match the stock column.
+    // A one-off migration: the marker is claimed in the same transaction, so the locking scan runs on the first start only.
+    @Transactional
+    public int recordOpeningBalances() {
+        Instant now = Instant.now();
+        if (appliedMigrationRepository.markApplied(OPENING_BALANCE_MIGRATION, now) == 0) {
+            return 0;
+        }
+        List<StockMovement> movements = new ArrayList<>();
+        for (MrStockRepository.StockLevel level : mrStockRepository.lockStockLevelsWithoutMovements()) {
+            int stock = level.getStock() == null ? 0 : level.getStock();
+            if (stock != 0) {
+                movements.add(movement(level.getMrId(), level.getProductId(), stock, StockMovementType.ADJUSTMENT, OPENING_BALANCE, now));
+            }
+        }
+        movementRepository.saveAll(movements);
+        return movements.size();
+    }
+
+    public StockMovementPageResponse page(StockOwner owner, String productId, Long cursor, Integer limit) {
+        Objects.requireNonNull(owner, "owner is required");
+        Objects.requireNonNull(productId, "productId is required");
+        int size = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        List<StockMovement> rows = movementRepository.findPage(owner.mrId(), productId, cursor, Limit.of(size + 1));
+        boolean hasMore = rows.size() > size;
+        List<StockMovement> pageRows = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? pageRows.get(pageRows.size() - 1).getId() : null;
+        return new StockMovementPageResponse(pageRows.stream().map(StockLedgerService::toResponse).toList(), nextCursor);
+    }
+
+    // Dates are UTC days, turned into id bounds so the cursor is a primary-key range scan.
+    @Transactional(readOnly = true)
+    public void export(LocalDate from, LocalDate to, Consumer<StockMovementResponse> sink) {
+        StreamingExporter.checkRange(from, to);
+        long fromId = from == null ? 0L : Math.max(0L, IdGenerator.firstIdAt(from.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        long toId = to == null ? Long.MAX_VALUE : IdGenerator.firstIdAt(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        try (Stream<StockMovementResponse> rows = movementRepository.streamForExport(fromId, toId)) {
+            rows.forEach(sink);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public StockBalanceResponse balanceAt(StockOwner owner, String productId, Instant asOf) {
+        Objects.requireNonNull(owner, "owner is required");
+        Objects.requireNonNull(productId, "productId is required");
+        if (asOf == null) {
+            Integer stock = mrStockRepository.findByMrIdAndProductId(owner.mrId(), productId)
+                    .orElseThrow(() -> new IllegalArgumentException("Stock item not found"))
+                    .getStock();
+            return new StockBalanceResponse(owner.mrId(), productId, stock == null ? 0 : stock, Instant.now());
+        }
+        if (!mrStockRepository.existsByMrIdAndProductId(owner.mrId(), productId)) {
+            throw new IllegalArgumentException("Stock item not found");
+        }
+
+        // Ids are time-ordered, so "recorded at or before asOf" is an id bound. The snapshot covers only movements
+        // within it; the movements it does not cover (by seq) are added when their id is within it too.
+        long upTo = IdGenerator.firstIdAt(asOf.plusMillis(1)) - 1;
+        Optional<StockSnapshot> snapshot = snapshotRepository
+                .findFirstByMrIdAndProductIdAndLastSeqNotNullAndLastMovementIdLessThanEqualOrderByLastMovementIdDescLastSeqDesc(
+                        owner.mrId(), productId, upTo);
+        long base = snapshot.map(StockSnapshot::getBalance).orElse(0L);
+        long after = snapshot.map(StockSnapshot::getLastSeq).orElse(0L);
+        return new StockBalanceResponse(owner.mrId(), productId, base + movementRepository.sumForProduct(owner.mrId(), productId, after, upTo), asOf);
+    }
+
+    // Snapshots every (MR, product) with movements inserted since the previous run. Writers insert a row's
+    // movements while holding its stock lock, so once the snapshot holds those locks every movement of the row has
+    // committed and the locked stock is exactly their sum, up to the row's highest seq. Seq comes from the database,
+    // not the clock, so a later movement always lands above it whichever instance writes it. Read committed, so the
+    // reads after the locks see what the locks waited for.
+    @Scheduled(
+            initialDelayString = "${stock.ledger.snapshot-interval-ms:600000}",
+            fixedDelayString = "${stock.ledger.snapshot-interval-ms:600000}")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int takeSnapshots() {
+        long after = Optional.ofNullable(snapshotRepository.findLastSeq()).orElse(0L);
+        Map<Long, List<String>> moved = new TreeMap<>();
+        for (StockMovementRepository.StockKey key : movementRepository.findMovedSince(after)) {
+            moved.computeIfAbsent(key.getMrId(), mrId -> new ArrayList<>()).add(key.getProductId());
+        }
+        if (moved.isEmpty()) {
+            return 0;
+        }
+        // Same lock order as the writers: MR by MR (central first), products in id order within each.
+        List<MrStockRepository.StockLevel> levels = new ArrayList<>();
+        moved.forEach((mrId, productIds) -> levels.addAll(mrStockRepository.lockStockLevels(mrId, productIds)));
+        // Latest snapshots for the MRs and products moved; the IN lists over-select, the key lookup filters.
+        Map<String, StockSnapshot> previous = snapshotRepository.findLatest(moved.keySet(),
+                        moved.values().stream().flatMap(List::stream).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(s -> key(s.getMrId(), s.getProductId()), s -> s, (a, b) -> a));
+        Instant now = Instant.now();
+
+        List<StockSnapshot> snapshots = new ArrayList<>(levels.size());
+        for (MrStockRepository.StockLevel level : levels) {
+            StockSnapshot last = previous.get(key(level.getMrId(), level.getProductId()));
+            StockMovementRepository.MovementMark mark = movementRepository.findMark(
+                    level.getMrId(), level.getProductId(), last == null ? 0L : last.getLastSeq());
+            if (mark.getSeq() == null) {
+                continue;
+            }
+            StockSnapshot snapshot = new StockSnapshot();
+            snapshot.setId(idGenerator.nextId());
+            snapshot.setMrId(level.getMrId());
+            snapshot.setProductId(level.getProductId());
+            snapshot.setLastSeq(mark.getSeq());
+            // Movements up to the previous snapshot's seq have ids up to its lastMovementId, so this is the max over all.
+            snapshot.setLastMovementId(last == null ? mark.getId() : Math.max(last.getLastMovementId(), mark.getId()));
+            snapshot.setBalance(level.getStock() == null ? 0L : level.getStock());
+            snapshot.setTakenAt(now);
+            snapshots.add(snapshot);
+        }
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    private static String key(Long mrId, String productId) {
+        return mrId + ":" + productId;
+    }
+
+    private StockMovement movement(Long mrId, String productId, int delta, StockMovementType type, String reference, Instant occurredAt) {
+        StockMovement movement = new StockMovement();
+        movement.setId(idGenerator.nextId());
+        movement.setMrId(mrId);
+        movement.setProductId(productId);
+        movement.setDelta(delta);
+        movement.setType(type);
+        movement.setReference(reference);
+        movement.setOccurredAt(occurredAt);
+        return movement;
+    }
+
+    public static StockMovementResponse toResponse(StockMovement movement) {
+        return new StockMovementResponse(
+                movement.getId(),
+                movement.getMrId(),
+                movement.getProductId(),
+                movement.getDelta(),
+                movement.getType(),
+                movement.getReference(),
+                movement.getOccurredAt()
+        );
+    }
+}
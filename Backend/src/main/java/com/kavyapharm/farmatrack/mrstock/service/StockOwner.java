@@ -0,0 +1,7 @@
+package com.kavyapharm.farmatrack.mrstock.service;
+
+// Partition key of MR stock; territory is only copied onto rows created for this owner.
+public record StockOwner(long mrId, String territory) {
+
+    public static final StockOwner CENTRAL = new StockOwner(0L, null);
+}
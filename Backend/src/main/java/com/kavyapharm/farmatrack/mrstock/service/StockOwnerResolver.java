@@ -0,0 +1,77 @@
+package com.kavyapharm.farmatrack.mrstock.service;
+
+import com.kavyapharm.farmatrack.security.CustomUserDetails;
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Component
+public class StockOwnerResolver {
+
+    private static final Set<UserRole> MR_OVERRIDE_ROLES = EnumSet.of(UserRole.SUPERADMIN, UserRole.ADMIN, UserRole.MANAGER);
+
+    private final UserRepository userRepository;
+
+    public StockOwnerResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // MRs always work on their own stock; other roles use the central pool, and only managers and admins
+    // may name an MR with ?mrId=.
+    public StockOwner resolve(Long requestedMrId) {
+        CustomUserDetails user = currentUser();
+        if (user != null && user.getRole() == UserRole.MR) {
+            return new StockOwner(user.getId(), user.getTerritory());
+        }
+        if (requestedMrId == null || requestedMrId == 0L) {
+            return StockOwner.CENTRAL;
+        }
+        if (user == null || !MR_OVERRIDE_ROLES.contains(user.getRole())) {
+            throw new AccessDeniedException("Only managers and admins can access another MR's stock");
+        }
+        User mr = userRepository.findById(requestedMrId)
+                .filter(candidate -> candidate.getRole() == UserRole.MR)
+                .orElseThrow(() -> new IllegalArgumentException("MR not found: " + requestedMrId));
+        return new StockOwner(mr.getId(), mr.getTerritory());
+    }
+
+    // Issuing moves central stock into an MR's partition, so an MR can never be the caller.
+    public StockOwner issueTarget(Long mrId) {
+        CustomUserDetails user = currentUser();
+        if (user == null || !MR_OVERRIDE_ROLES.contains(user.getRole())) {
+            throw new AccessDeniedException("Only managers and admins can issue stock");
+        }
+        if (mrId == null || mrId == 0L) {
+            throw new IllegalArgumentException("mrId is required");
+        }
+        return resolve(mrId);
+    }
+
+    public StockOwner current() {
+        return resolve(null);
+    }
+
+    // Owner of stock recorded against a stored mrId (DCR, receipt), carrying the MR's territory so rows
+    // created for it still count in the territory totals.
+    public StockOwner of(Long mrId) {
+        if (mrId == null || mrId == 0L) {
+            return StockOwner.CENTRAL;
+        }
+        return new StockOwner(mrId, userRepository.findById(mrId).map(User::getTerritory).orElse(null));
+    }
+
+    private static CustomUserDetails currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return details;
+        }
+        return null;
+    }
+}
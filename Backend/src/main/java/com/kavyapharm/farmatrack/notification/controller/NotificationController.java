@@ -1,13 +1,22 @@
 package com.kavyapharm.farmatrack.notification.controller;
 
 import com.kavyapharm.farmatrack.notification.dto.CreateNotificationRequest;
+import com.kavyapharm.farmatrack.notification.dto.NotificationPageResponse;
 import com.kavyapharm.farmatrack.notification.dto.NotificationResponse;
+import com.kavyapharm.farmatrack.notification.dto.StreamTokenResponse;
+import com.kavyapharm.farmatrack.notification.dto.UnreadCountResponse;
 import com.kavyapharm.farmatrack.notification.dto.UpdateNotificationRequest;
 import com.kavyapharm.farmatrack.notification.service.NotificationService;
+import com.kavyapharm.farmatrack.notification.service.NotificationStreamHub;
+import com.kavyapharm.farmatrack.security.JwtUtil;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -16,9 +25,13 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamHub streamHub;
+    private final JwtUtil jwtUtil;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, NotificationStreamHub streamHub, JwtUtil jwtUtil) {
         this.notificationService = notificationService;
+        this.streamHub = streamHub;
+        this.jwtUtil = jwtUtil;
     }
 
     @GetMapping
@@ -26,6 +39,33 @@ public class NotificationController {
         return notificationService.list();
     }
 
+    @GetMapping(params = "limit")
+    public NotificationPageResponse page(
+            @RequestParam(required = false) String cursor,
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String priority
+    ) {
+        return notificationService.page(cursor, limit, status, type, priority);
+    }
+
+    @GetMapping("/unread-count")
+    public UnreadCountResponse unreadCount() {
+        return new UnreadCountResponse(notificationService.unreadCount());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return streamHub.subscribe();
+    }
+
+    // EventSource can't send the Authorization header; it opens the stream with ?access_token= from here instead
+    @PostMapping("/stream-token")
+    public StreamTokenResponse streamToken(@AuthenticationPrincipal UserDetails user) {
+        return new StreamTokenResponse(jwtUtil.generateStreamToken(user), jwtUtil.getStreamTokenExpiration());
+    }
+
     @GetMapping("/{id}")
     public NotificationResponse get(@PathVariable String id) {
         return notificationService.get(id);
@@ -0,0 +1,9 @@
+package com.kavyapharm.farmatrack.notification.dto;
+
+import java.util.List;
+
+public record NotificationPageResponse(
+        List<NotificationResponse> items,
+        String nextCursor
+) {
+}
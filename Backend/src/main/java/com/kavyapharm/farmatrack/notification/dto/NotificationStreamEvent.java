@@ -0,0 +1,9 @@
+package com.kavyapharm.farmatrack.notification.dto;
+
+public record NotificationStreamEvent(
+        String action,
+        String id,
+        NotificationResponse notification,
+        long unread
+) {
+}
@@ -0,0 +1,7 @@
+package com.kavyapharm.farmatrack.notification.dto;
+
+public record StreamTokenResponse(
+        String token,
+        long expiresInMs
+) {
+}
@@ -0,0 +1,6 @@
+package com.kavyapharm.farmatrack.notification.dto;
+
+public record UnreadCountResponse(
+        long unread
+) {
+}
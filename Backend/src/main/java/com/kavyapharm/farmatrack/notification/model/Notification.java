@@ -3,13 +3,24 @@ package com.kavyapharm.farmatrack.notification.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "app_notification")
-public class Notification {
+@Table(
+        name = "app_notification",
+        indexes = {
+                @Index(name = "idx_notification_date_id", columnList = "date, id"),
+                @Index(name = "idx_notification_status_date_id", columnList = "status, date, id")
+        }
+)
+public class Notification implements Persistable<String> {
 
     @Id
     @Column(length = 10)
@@ -33,9 +44,13 @@ public class Notification {
     @Column(nullable = false)
     private String priority;
 
+    @Transient
+    private boolean isNew = true;
+
     public Notification() {
     }
 
+    @Override
     public String getId() {
         return id;
     }
@@ -91,4 +106,15 @@ public class Notification {
     public void setPriority(String priority) {
         this.priority = priority;
     }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
 }
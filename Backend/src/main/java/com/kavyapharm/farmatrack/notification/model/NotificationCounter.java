@@ -0,0 +1,38 @@
+package com.kavyapharm.farmatrack.notification.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// One slot of a running total over app_notification; the total is the sum of its slots, shared by every instance.
+@Entity
+@Table(name = "app_notification_counter")
+public class NotificationCounter {
+
+    @Id
+    @Column(length = 20)
+    private String id;
+
+    @Column(nullable = false)
+    private Long total;
+
+    public NotificationCounter() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,36 @@
+package com.kavyapharm.farmatrack.notification.repository;
+
+import com.kavyapharm.farmatrack.notification.model.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, String> {
+
+    // Null when none of the rows exist yet.
+    @Query("select sum(c.total) from NotificationCounter c where c.id in :ids")
+    Long sumTotals(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("update NotificationCounter c set c.total = c.total + :delta where c.id = :id")
+    int add(@Param("id") String id, @Param("delta") long delta);
+
+    // Creates the counter from a COUNT unless it exists; a concurrent first writer cannot collide on the key.
+    @Modifying
+    @Query(value = "insert ignore into app_notification_counter (id, total) "
+            + "select :id, count(*) from app_notification where status = :status", nativeQuery = true)
+    int insertCountIfMissing(@Param("id") String id, @Param("status") String status);
+
+    @Modifying
+    @Query(value = "insert ignore into app_notification_counter (id, total) values (:id, 0)", nativeQuery = true)
+    int insertZeroIfMissing(@Param("id") String id);
+
+    // Recount in one statement: the full count goes to countId and every other listed row is zeroed.
+    @Modifying
+    @Query(value = "update app_notification_counter set total = case when id = :countId then "
+            + "(select count(*) from app_notification where status = :status) else 0 end where id in (:ids)", nativeQuery = true)
+    int recount(@Param("ids") Collection<String> ids, @Param("countId") String countId, @Param("status") String status);
+}
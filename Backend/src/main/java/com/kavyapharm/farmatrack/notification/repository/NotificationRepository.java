@@ -1,7 +1,32 @@
 package com.kavyapharm.farmatrack.notification.repository;
 
 import com.kavyapharm.farmatrack.notification.model.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, String> {
+
+    long countByStatus(String status);
+
+    @Query("""
+            select n from Notification n
+            where (:cursorDate is null or n.date < :cursorDate or (n.date = :cursorDate and n.id < :cursorId))
+              and (:status is null or n.status = :status)
+              and (:type is null or n.type = :type)
+              and (:priority is null or n.priority = :priority)
+            order by n.date desc, n.id desc
+            """)
+    List<Notification> findPage(
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorId") String cursorId,
+            @Param("status") String status,
+            @Param("type") String type,
+            @Param("priority") String priority,
+            Limit limit
+    );
 }
@@ -1,24 +1,46 @@
 package com.kavyapharm.farmatrack.notification.service;
 
+import com.kavyapharm.farmatrack.common.IdGenerator;
 import com.kavyapharm.farmatrack.notification.dto.CreateNotificationRequest;
+import com.kavyapharm.farmatrack.notification.dto.NotificationPageResponse;
 import com.kavyapharm.farmatrack.notification.dto.NotificationResponse;
+import com.kavyapharm.farmatrack.notification.dto.NotificationStreamEvent;
 import com.kavyapharm.farmatrack.notification.dto.UpdateNotificationRequest;
 import com.kavyapharm.farmatrack.notification.model.Notification;
 import com.kavyapharm.farmatrack.notification.repository.NotificationRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Objects;
 
 @Service
 public class NotificationService {
 
-    private final NotificationRepository notificationRepository;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final char CURSOR_SEPARATOR = '_';
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    private final NotificationRepository notificationRepository;
+    private final IdGenerator idGenerator;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStreamHub streamHub;
+
+    public NotificationService(
+            NotificationRepository notificationRepository,
+            IdGenerator idGenerator,
+            UnreadNotificationCounter unreadCounter,
+            NotificationStreamHub streamHub) {
         this.notificationRepository = notificationRepository;
+        this.idGenerator = idGenerator;
+        this.unreadCounter = unreadCounter;
+        this.streamHub = streamHub;
     }
 
     public List<NotificationResponse> list() {
@@ -26,13 +48,50 @@ public class NotificationService {
                 .stream().map(NotificationService::toResponse).toList();
     }
 
+    public NotificationPageResponse page(String cursor, Integer limit, String status, String type, String priority) {
+        int size = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+
+        LocalDate cursorDate = null;
+        String cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == cursor.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            try {
+                cursorDate = LocalDate.parse(cursor.substring(0, separator));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            cursorId = cursor.substring(separator + 1);
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query.
+        List<Notification> rows = notificationRepository.findPage(
+                cursorDate, cursorId, blankToNull(status), blankToNull(type), blankToNull(priority), Limit.of(size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<Notification> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = pageRows.get(pageRows.size() - 1);
+            nextCursor = last.getDate().toString() + CURSOR_SEPARATOR + last.getId();
+        }
+        return new NotificationPageResponse(pageRows.stream().map(NotificationService::toResponse).toList(), nextCursor);
+    }
+
+    public long unreadCount() {
+        return unreadCounter.get();
+    }
+
     public NotificationResponse get(String id) {
         Objects.requireNonNull(id, "id is required");
         return toResponse(getEntity(id));
     }
 
+    @Transactional
     public NotificationResponse create(CreateNotificationRequest request) {
-        String id = generateId();
+        String id = idGenerator.nextStringId();
 
         Notification notification = new Notification();
         notification.setId(id);
@@ -43,12 +102,16 @@ public class NotificationService {
         notification.setStatus(request.status() == null || request.status().isBlank() ? "Unread" : request.status());
         notification.setPriority(request.priority() == null || request.priority().isBlank() ? "Normal" : request.priority());
 
-        return toResponse(notificationRepository.save(notification));
+        Notification saved = notificationRepository.save(notification);
+        unreadCounter.statusChanged(null, saved.getStatus());
+        return publish("created", saved);
     }
 
+    @Transactional
     public NotificationResponse update(String id, UpdateNotificationRequest request) {
         Objects.requireNonNull(id, "id is required");
         Notification notification = getEntity(id);
+        String previousStatus = notification.getStatus();
 
         notification.setTitle(request.title());
         notification.setMessage(request.message());
@@ -57,15 +120,21 @@ public class NotificationService {
         notification.setStatus(request.status());
         notification.setPriority(request.priority());
 
-        return toResponse(notificationRepository.save(notification));
+        Notification saved = notificationRepository.save(notification);
+        unreadCounter.statusChanged(previousStatus, saved.getStatus());
+        return publish("updated", saved);
     }
 
+    @Transactional
     public void delete(String id) {
         Objects.requireNonNull(id, "id is required");
-        if (!notificationRepository.existsById(id)) {
-            return;
-        }
-        notificationRepository.deleteById(id);
+        notificationRepository.findById(id).ifPresent(notification -> {
+            notificationRepository.delete(notification);
+            unreadCounter.statusChanged(notification.getStatus(), null);
+            if (streamHub.connectionCount() > 0) {
+                publishAfterCommit(new NotificationStreamEvent("deleted", id, null, unreadCounter.get()));
+            }
+        });
     }
 
     private Notification getEntity(String id) {
@@ -74,13 +143,27 @@ public class NotificationService {
                 .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
     }
 
-    private String generateId() {
-        String id;
-        do {
-            int n = (int) Math.floor(Math.random() * 1000);
-            id = "N" + String.format("%03d", n);
-        } while (notificationRepository.existsById(id));
-        return id;
+    private NotificationResponse publish(String action, Notification notification) {
+        NotificationResponse response = toResponse(notification);
+        // The count is only read when someone is listening.
+        if (streamHub.connectionCount() > 0) {
+            publishAfterCommit(new NotificationStreamEvent(action, response.id(), response, unreadCounter.get()));
+        }
+        return response;
+    }
+
+    // Subscribers re-read on an event, so it only goes out once the change and its count are committed.
+    private void publishAfterCommit(NotificationStreamEvent event) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                streamHub.publish(event);
+            }
+        });
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 
     public static NotificationResponse toResponse(Notification notification) {
@@ -0,0 +1,231 @@
+package com.kavyapharm.farmatrack.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kavyapharm.farmatrack.notification.dto.NotificationStreamEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fans notification changes out to SSE subscribers. Idle connections hold no thread (async servlet);
+// each event is serialized once and queued per subscriber. A subscriber with queued frames is drained by a writer
+// (a virtual thread when enabled, else a pooled daemon thread), and at most writer-threads drains run at once.
+// A client that stops reading blocks only the writer draining it: once that write has been blocked for the send
+// timeout, the next publish or heartbeat drops the subscriber and hands its slot to the next drain. The abandoned
+// thread ends when the connector gives up on the write, so the fan-out never waits on the connector's timeout.
+@Component
+public class NotificationStreamHub {
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final Executor writer;
+    private final Semaphore writeSlots;
+    private final Queue<Subscriber> pendingDrains = new ConcurrentLinkedQueue<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public NotificationStreamHub(
+            ObjectMapper objectMapper,
+            @Value("${notifications.stream.buffer-size:32}") int bufferSize,
+            @Value("${notifications.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${notifications.stream.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${notifications.stream.writer-threads:8}") int writerThreads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = Math.max(1, sendTimeoutMs);
+        this.writer = virtualThreads && Runtime.version().feature() >= 21 ? virtualWriter() : pooledWriter();
+        this.writeSlots = new Semaphore(Math.max(1, writerThreads));
+    }
+
+    private static Executor virtualWriter() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notification-stream-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    // Threads are created on demand and reused; the write slots, not the pool, bound how many drains run at once.
+    private static Executor pooledWriter() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "notification-stream-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Starts queued drains while slots are free; called whenever a drain is queued or a slot is released.
+    private void dispatch() {
+        while (!pendingDrains.isEmpty() && writeSlots.tryAcquire()) {
+            Subscriber next = pendingDrains.poll();
+            if (next == null) {
+                writeSlots.release();
+                continue;
+            }
+            next.holdingSlot.set(true);
+            writer.execute(next::drain);
+        }
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(e -> subscriber.detach());
+        subscribers.add(subscriber);
+        // Flushes the response headers right away so clients see the stream open.
+        subscriber.offer(HEARTBEAT);
+        return emitter;
+    }
+
+    public void publish(NotificationStreamEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize notification event", e);
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .name("notification")
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${notifications.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    public int connectionCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        if (writer instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final AtomicBoolean holdingSlot = new AtomicBoolean();
+        private volatile boolean closed;
+        // Wall-clock start of the write in progress, 0 while none is.
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+            long since = sendingSince;
+            if ((since != 0 && System.currentTimeMillis() - since > sendTimeoutMs) || !buffer.offer(frame)) {
+                // A client this far behind is dropped; it reconnects and re-reads the first page.
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                pendingDrains.add(this);
+                dispatch();
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = buffer.poll()) != null) {
+                    sendingSince = System.currentTimeMillis();
+                    emitter.send(frame);
+                    sendingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                sendingSince = 0;
+                close();
+            } finally {
+                releaseSlot();
+                draining.set(false);
+            }
+            if (closed) {
+                complete();
+            } else if (!buffer.isEmpty()) {
+                // Catch frames offered between the last poll and releasing the flag.
+                schedule();
+            }
+        }
+
+        // Never blocks the caller: the emitter's methods are synchronized and a stalled write holds that lock,
+        // so completing is left to a writer, which runs once the stalled write returns or fails. The slot is
+        // released right away, so a writer stuck on this subscriber no longer counts against the others.
+        void close() {
+            closed = true;
+            if (subscribers.remove(this)) {
+                buffer.clear();
+                releaseSlot();
+                schedule();
+            }
+        }
+
+        private void releaseSlot() {
+            if (holdingSlot.compareAndSet(true, false)) {
+                writeSlots.release();
+                dispatch();
+            }
+        }
+
+        // The container already finished the response; only stop writing to it.
+        void detach() {
+            completed.set(true);
+            close();
+        }
+
+        private void complete() {
+            if (completed.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.kavyapharm.farmatrack.notification.service;
+
+import com.kavyapharm.farmatrack.notification.repository.NotificationCounterRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+// Keeps the unread total in counter rows so bell polling is a primary-key read instead of a COUNT.
+// The total is spread over slot rows: each notification write adds to one slot picked at random, in the same
+// transaction, so concurrent writers rarely wait on each other's row lock and the sum of the slots is never
+// ahead of or behind committed data. A periodic recount repairs drift from writes made elsewhere.
+@Component
+public class UnreadNotificationCounter {
+
+    static final String UNREAD = "Unread";
+    // The first slot keeps the id of the single counter row used before slots, and is the one seeded from a COUNT.
+    private static final String FIRST_SLOT = "unread";
+
+    private final NotificationCounterRepository counterRepository;
+    private final List<String> slots;
+
+    public UnreadNotificationCounter(
+            NotificationCounterRepository counterRepository,
+            @Value("${notifications.unread-count.slots:16}") int slotCount) {
+        this.counterRepository = counterRepository;
+        this.slots = IntStream.range(0, Math.max(1, slotCount))
+                .mapToObj(slot -> slot == 0 ? FIRST_SLOT : FIRST_SLOT + "-" + slot)
+                .toList();
+    }
+
+    @Transactional
+    public long get() {
+        Long total = counterRepository.sumTotals(slots);
+        if (total != null) {
+            return total;
+        }
+        createSlots();
+        return counterRepository.sumTotals(slots);
+    }
+
+    // One statement puts the full count in the first slot and zeroes the rest, so no increment committed
+    // meanwhile can be overwritten by a stale total.
+    @Scheduled(
+            initialDelayString = "${notifications.unread-count.resync-interval-ms:300000}",
+            fixedDelayString = "${notifications.unread-count.resync-interval-ms:300000}")
+    @Transactional
+    public void resync() {
+        if (counterRepository.recount(slots, FIRST_SLOT, UNREAD) < slots.size()) {
+            createSlots();
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(String before, String after) {
+        long delta = (UNREAD.equals(after) ? 1 : 0) - (UNREAD.equals(before) ? 1 : 0);
+        String slot = slots.get(ThreadLocalRandom.current().nextInt(slots.size()));
+        if (delta == 0 || counterRepository.add(slot, delta) > 0) {
+            return;
+        }
+        // No slot yet: seed the first from a COUNT, which already sees this transaction's own write. If another
+        // transaction seeded it first, that COUNT could not see this write, so apply the delta after all.
+        if (!createSlots()) {
+            counterRepository.add(slot, delta);
+        }
+    }
+
+    // Returns whether this call seeded the first slot.
+    private boolean createSlots() {
+        boolean seeded = counterRepository.insertCountIfMissing(FIRST_SLOT, UNREAD) > 0;
+        for (String slot : slots.subList(1, slots.size())) {
+            counterRepository.insertZeroIfMissing(slot);
+        }
+        return seeded;
+    }
+}
@@ -1,6 +1,8 @@
 package com.kavyapharm.farmatrack.security;
 
 import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -8,27 +10,39 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
 
+// Immutable snapshot of the user taken at load time: principals are cached and shared across requests, so they
+// must not hold the managed entity.
 public class CustomUserDetails implements UserDetails {
 
-    private final User user;
+    private final Long id;
+    private final String email;
+    private final UserRole role;
+    private final String territory;
+    private final UserStatus status;
+    private final String passwordHash;
 
     public CustomUserDetails(User user) {
-        this.user = user;
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.territory = user.getTerritory();
+        this.status = user.getStatus();
+        this.passwordHash = user.getPasswordHash();
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
     public String getPassword() {
-        return user.getPasswordHash();
+        return passwordHash;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -48,10 +62,22 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.getStatus() != null && "ACTIVE".equalsIgnoreCase(user.getStatus().name());
+        return status != null && "ACTIVE".equalsIgnoreCase(status.name());
     }
 
-    public User getUser() {
-        return user;
+    public Long getId() {
+        return id;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public String getTerritory() {
+        return territory;
+    }
+
+    public UserStatus getStatus() {
+        return status;
     }
 }
@@ -2,24 +2,54 @@ package com.kavyapharm.farmatrack.security;
 
 import com.kavyapharm.farmatrack.user.model.User;
 import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final ExpiringCache<String, CustomUserDetails> principals;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(
+            UserRepository userRepository,
+            @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${security.principal-cache.max-size:10000}") int maxSize) {
         this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.principals = new ExpiringCache<>(maxSize);
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        String key = cacheKey(email);
+        long now = System.currentTimeMillis();
+        CustomUserDetails cached = principals.get(key, now);
+        if (cached != null) {
+            return cached;
+        }
+
         User user = userRepository.findByEmailIgnoreCase(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
-        return new CustomUserDetails(user);
+        CustomUserDetails details = new CustomUserDetails(user);
+        principals.put(key, details, now + ttlMillis, now);
+        return details;
+    }
+
+    // Called whenever a user's role, status, password or existence changes so the next request reloads it.
+    public void evict(String email) {
+        if (email != null) {
+            principals.remove(cacheKey(email));
+        }
+    }
+
+    private static String cacheKey(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,59 @@
+package com.kavyapharm.farmatrack.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+
+    private final int maxSize;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    ExpiringCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    V get(K key, long nowMillis) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= nowMillis) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    void put(K key, V value, long expiresAtMillis, long nowMillis) {
+        if (maxSize <= 0 || expiresAtMillis <= nowMillis) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(nowMillis);
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+    }
+
+    void remove(K key) {
+        entries.remove(key);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long nowMillis) {
+        entries.values().removeIf(e -> e.expiresAtMillis() <= nowMillis);
+
+        // Still full of live entries: drop arbitrary ones; they are simply reloaded on next use.
+        Iterator<K> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -18,6 +18,8 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/api/notifications/stream";
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
 
@@ -32,22 +34,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
+        final String streamToken = STREAM_PATH.equals(request.getServletPath())
+                ? request.getParameter("access_token") : null;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if ((authHeader == null || !authHeader.startsWith("Bearer ")) && streamToken == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        // If parsing fails, it might throw exception, but filter chain should handle it
-        // or it bubbles up.
-        // For robustness we can try-catch, but standard practice is let it burst if
-        // malformed.
+        final String userEmail;
 
         try {
-            userEmail = jwtUtil.extractUsername(jwt);
+            // EventSource can't set headers, so the stream alone also takes a short-lived scoped token in the query
+            userEmail = authHeader != null && authHeader.startsWith("Bearer ")
+                    ? jwtUtil.extractUsername(authHeader.substring(7))
+                    : jwtUtil.extractStreamUsername(streamToken);
         } catch (Exception e) {
             // Invalid token format or expired
             filterChain.doFilter(request, response);
@@ -56,7 +57,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
+            if (userEmail.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -1,10 +1,13 @@
 package com.kavyapharm.farmatrack.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -18,18 +21,39 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    // Scope claim of tokens that may only open the notification stream, which EventSource can't send a header for
+    public static final String SCOPE_CLAIM = "scope";
+    public static final String STREAM_SCOPE = "notification-stream";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final Key signInKey;
+    private final JwtParser jwtParser;
+    private final long jwtExpiration;
+    private final long streamTokenExpiration;
+    private final ExpiringCache<String, String> verifiedTokens;
+
+    @Autowired
+    public JwtUtil(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize,
+            @Value("${jwt.stream-expiration:60000}") long streamTokenExpiration) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.streamTokenExpiration = streamTokenExpiration;
+        this.verifiedTokens = new ExpiringCache<>(verifiedCacheSize);
+    }
+
+    public JwtUtil(String secret, long jwtExpiration, int verifiedCacheSize) {
+        this(secret, jwtExpiration, verifiedCacheSize, 60_000);
+    }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return validateToken(token);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = jwtParser.parseClaimsJws(token).getBody();
         return claimsResolver.apply(claims);
     }
 
@@ -41,39 +65,63 @@ public class JwtUtil {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
 
+    public String generateStreamToken(UserDetails userDetails) {
+        return buildToken(Map.of(SCOPE_CLAIM, STREAM_SCOPE), userDetails, streamTokenExpiration);
+    }
+
+    public long getStreamTokenExpiration() {
+        return streamTokenExpiration;
+    }
+
+    // Stream tokens sit in URLs and access logs, so they are short-lived, never cached and good for nothing else.
+    public String extractStreamUsername(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (!STREAM_SCOPE.equals(claims.get(SCOPE_CLAIM))) {
+            throw new JwtException("Not a notification stream token");
+        }
+        return claims.getSubject();
+    }
+
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        try {
+            return userDetails.getUsername().equals(validateToken(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    // Signature and expiry are checked in one parse; recently verified tokens skip the HMAC until they expire.
+    // Only the subject is kept, so callers never share a mutable Claims instance.
+    private String validateToken(String token) {
+        long now = System.currentTimeMillis();
+        String cached = verifiedTokens.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claims.get(SCOPE_CLAIM) != null) {
+            throw new JwtException("Scoped token used as a bearer token");
+        }
+        String subject = claims.getSubject();
+        Date expiration = claims.getExpiration();
+        if (subject != null && expiration != null) {
+            verifiedTokens.put(token, subject, expiration.getTime(), now);
+        }
+        return subject;
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    ExpiringCache<String, String> verifiedTokens() {
+        return verifiedTokens;
     }
 }
@@ -1,13 +1,17 @@
 package com.kavyapharm.farmatrack.stockreceived.controller;
 
+import com.kavyapharm.farmatrack.common.StreamingExporter;
 import com.kavyapharm.farmatrack.stockreceived.dto.CreateStockReceivedEntryRequest;
 import com.kavyapharm.farmatrack.stockreceived.dto.StockReceivedEntryResponse;
 import com.kavyapharm.farmatrack.stockreceived.service.StockReceivedService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,9 +19,11 @@ import java.util.List;
 public class StockReceivedController {
 
     private final StockReceivedService service;
+    private final StreamingExporter streamingExporter;
 
-    public StockReceivedController(StockReceivedService service) {
+    public StockReceivedController(StockReceivedService service, StreamingExporter streamingExporter) {
         this.service = service;
+        this.streamingExporter = streamingExporter;
     }
 
     @GetMapping
@@ -25,6 +31,16 @@ public class StockReceivedController {
         return service.list(productId);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        StreamingExporter.checkRange(from, to);
+        return streamingExporter.export("stock-received", format, StockReceivedService.EXPORT_COLUMNS, sink -> service.export(from, to, sink));
+    }
+
     @PostMapping
     public ResponseEntity<StockReceivedEntryResponse> create(@Valid @RequestBody CreateStockReceivedEntryRequest request) {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.create(request));
@@ -5,10 +5,14 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "app_stock_received")
+@Table(
+        name = "app_stock_received",
+        indexes = @Index(name = "idx_stock_received_date", columnList = "date, id")
+)
 public class StockReceivedEntry {
 
     @Id
@@ -27,9 +31,20 @@ public class StockReceivedEntry {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    // MR whose stock the receipt went to; null means the central pool.
+    private Long mrId;
+
     public StockReceivedEntry() {
     }
 
+    public Long getMrId() {
+        return mrId;
+    }
+
+    public void setMrId(Long mrId) {
+        this.mrId = mrId;
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,10 +1,28 @@
 package com.kavyapharm.farmatrack.stockreceived.repository;
 
+import com.kavyapharm.farmatrack.common.StreamingExporter;
+import com.kavyapharm.farmatrack.stockreceived.dto.StockReceivedEntryResponse;
 import com.kavyapharm.farmatrack.stockreceived.model.StockReceivedEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface StockReceivedRepository extends JpaRepository<StockReceivedEntry, Long> {
     List<StockReceivedEntry> findAllByProductId(String productId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingExporter.FETCH_SIZE))
+    @Query("""
+            select new com.kavyapharm.farmatrack.stockreceived.dto.StockReceivedEntryResponse(e.id, e.productId, e.quantity, e.date, e.notes)
+            from StockReceivedEntry e
+            where (:fromDate is null or e.date >= :fromDate)
+              and (:toDate is null or e.date < :toDate)
+            order by e.date, e.id
+            """)
+    Stream<StockReceivedEntryResponse> streamForExport(@Param("fromDate") String fromDate, @Param("toDate") String toDate);
 }
@@ -1,6 +1,11 @@
 package com.kavyapharm.farmatrack.stockreceived.service;
 
+import com.kavyapharm.farmatrack.common.ExportColumn;
+import com.kavyapharm.farmatrack.common.StreamingExporter;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovementType;
 import com.kavyapharm.farmatrack.mrstock.service.MrStockService;
+import com.kavyapharm.farmatrack.mrstock.service.StockOwner;
+import com.kavyapharm.farmatrack.mrstock.service.StockOwnerResolver;
 import com.kavyapharm.farmatrack.stockreceived.dto.CreateStockReceivedEntryRequest;
 import com.kavyapharm.farmatrack.stockreceived.dto.StockReceivedEntryResponse;
 import com.kavyapharm.farmatrack.stockreceived.model.StockReceivedEntry;
@@ -9,22 +14,34 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class StockReceivedService {
 
+    public static final List<ExportColumn<StockReceivedEntryResponse>> EXPORT_COLUMNS = List.of(
+            new ExportColumn<>("id", StockReceivedEntryResponse::id),
+            new ExportColumn<>("date", StockReceivedEntryResponse::date),
+            new ExportColumn<>("productId", StockReceivedEntryResponse::productId),
+            new ExportColumn<>("quantity", StockReceivedEntryResponse::quantity),
+            new ExportColumn<>("notes", StockReceivedEntryResponse::notes)
+    );
+
     private final StockReceivedRepository repository;
     private final MrStockService mrStockService;
+    private final StockOwnerResolver stockOwnerResolver;
 
-    public StockReceivedService(StockReceivedRepository repository, MrStockService mrStockService) {
+    public StockReceivedService(StockReceivedRepository repository, MrStockService mrStockService, StockOwnerResolver stockOwnerResolver) {
         this.repository = repository;
         this.mrStockService = mrStockService;
+        this.stockOwnerResolver = stockOwnerResolver;
     }
 
     public List<StockReceivedEntryResponse> list(String productId) {
-        ensureInitialized();
         if (productId != null && !productId.isBlank()) {
             return repository.findAllByProductId(productId).stream().map(StockReceivedService::toResponse).toList();
         }
@@ -32,17 +49,28 @@ public class StockReceivedService {
                 .stream().map(StockReceivedService::toResponse).toList();
     }
 
+    @Transactional(readOnly = true)
+    public void export(LocalDate from, LocalDate to, Consumer<StockReceivedEntryResponse> sink) {
+        StreamingExporter.checkRange(from, to);
+        try (Stream<StockReceivedEntryResponse> rows = repository.streamForExport(
+                from == null ? null : from.toString(),
+                to == null ? null : to.plusDays(1).toString())) {
+            rows.forEach(sink);
+        }
+    }
+
     @Transactional
     public StockReceivedEntryResponse create(CreateStockReceivedEntryRequest request) {
-        ensureInitialized();
         StockReceivedEntry entry = new StockReceivedEntry();
         entry.setProductId(request.productId());
         entry.setQuantity(request.quantity());
         entry.setDate(request.date());
         entry.setNotes(request.notes());
 
+        StockOwner owner = stockOwnerResolver.current();
+        entry.setMrId(owner.mrId());
         StockReceivedEntry saved = repository.save(entry);
-        mrStockService.adjustStockOrThrow(request.productId(), request.quantity());
+        mrStockService.receive(owner, request.productId(), request.quantity(), "STOCK_RECEIVED:" + saved.getId());
 
         return toResponse(saved);
     }
@@ -58,12 +86,12 @@ public class StockReceivedService {
 
         Integer qty = entry.getQuantity() == null ? 0 : entry.getQuantity();
         if (qty > 0) {
-            mrStockService.adjustStockOrThrow(entry.getProductId(), -qty);
+            mrStockService.adjustStockOrThrow(stockOwnerResolver.of(entry.getMrId()), entry.getProductId(), -qty, StockMovementType.ADJUSTMENT, "STOCK_RECEIVED:" + id);
         }
         repository.deleteById(id);
     }
 
-    private void ensureInitialized() {
+    public void seedDemoData() {
         if (repository.count() > 0) {
             return;
         }
@@ -1,5 +1,6 @@
 package com.kavyapharm.farmatrack.user.model;
 
+import com.kavyapharm.farmatrack.common.EmailNormalizer;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -7,6 +8,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
@@ -17,6 +19,9 @@ import java.time.LocalDate;
         name = "app_user",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"email"})
+        },
+        indexes = {
+                @Index(name = "uk_user_email_normalized", columnList = "emailNormalized", unique = true)
         }
 )
 public class User {
@@ -31,6 +36,9 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    // Lower-cased copy of email so case-insensitive lookups can seek an index instead of scanning upper(email).
+    private String emailNormalized;
+
     @Column(nullable = false)
     private String passwordHash;
 
@@ -75,6 +83,11 @@ public class User {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = EmailNormalizer.normalize(email);
+    }
+
+    public String getEmailNormalized() {
+        return emailNormalized;
     }
 
     public String getPasswordHash() {
@@ -1,12 +1,38 @@
 package com.kavyapharm.farmatrack.user.repository;
 
+import com.kavyapharm.farmatrack.common.EmailNormalizer;
 import com.kavyapharm.farmatrack.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmailIgnoreCase(String email);
+    Optional<User> findByEmailNormalized(String emailNormalized);
 
-    boolean existsByEmailIgnoreCase(String email);
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    // Case-insensitive lookups go through the indexed email_normalized column rather than upper(email) = upper(?).
+    default Optional<User> findByEmailIgnoreCase(String email) {
+        return findByEmailNormalized(EmailNormalizer.normalize(email));
+    }
+
+    default boolean existsByEmailIgnoreCase(String email) {
+        return existsByEmailNormalized(EmailNormalizer.normalize(email));
+    }
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.lastLogin = :date where u.id in :ids and (u.lastLogin is null or u.lastLogin < :date)")
+    int updateLastLogin(@Param("ids") Collection<Long> ids, @Param("date") LocalDate date);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.emailNormalized = lower(trim(u.email)) where u.emailNormalized is null")
+    int backfillEmailNormalized();
 }
@@ -9,6 +9,7 @@ import com.kavyapharm.farmatrack.user.model.UserStatus;
 import com.kavyapharm.farmatrack.user.repository.UserRepository;
 import com.kavyapharm.farmatrack.doctor.model.Doctor;
 import com.kavyapharm.farmatrack.doctor.repository.DoctorRepository;
+import com.kavyapharm.farmatrack.security.CustomUserDetailsService;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,11 +23,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
     private final DoctorRepository doctorRepository;
+    private final CustomUserDetailsService userDetailsService;
 
-    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder, DoctorRepository doctorRepository) {
+    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder, DoctorRepository doctorRepository,
+            CustomUserDetailsService userDetailsService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.doctorRepository = doctorRepository;
+        this.userDetailsService = userDetailsService;
     }
 
     public List<UserResponse> list() {
@@ -104,6 +108,7 @@ public class UserService {
         }
 
         User saved = userRepository.save(user);
+        userDetailsService.evict(saved.getEmail());
 
         // If updated user is a Doctor, ensure Doctor entity is created/updated to keep dashboard in sync
         try {
@@ -156,6 +161,7 @@ public class UserService {
         }
 
         userRepository.deleteById(id);
+        userDetailsService.evict(user.getEmail());
     }
 
     public User getByEmailOrThrow(String email) {
@@ -0,0 +1,73 @@
+package com.kavyapharm.farmatrack;
+
+import com.kavyapharm.farmatrack.dailyplan.service.DailyPlanTaskService;
+import com.kavyapharm.farmatrack.mrdashboard.service.MrDashboardService;
+import com.kavyapharm.farmatrack.mrexpense.service.MrExpenseService;
+import com.kavyapharm.farmatrack.mrstock.service.MrStockService;
+import com.kavyapharm.farmatrack.stockreceived.service.StockReceivedService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.kavyapharm.farmatrack.mrstock.service.StockOwner.CENTRAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DemoDataInitializerTest {
+
+    @Autowired
+    private MrStockService mrStockService;
+
+    @Autowired
+    private StockReceivedService stockReceivedService;
+
+    @Autowired
+    private MrExpenseService mrExpenseService;
+
+    @Autowired
+    private DailyPlanTaskService dailyPlanTaskService;
+
+    @Autowired
+    private MrDashboardService mrDashboardService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Before seeding moved to startup each of these paid an extra COUNT(*) (or existsById) per call.
+    @Test
+    void readPaths_IssueOneStatementPerRequest() {
+        assertEquals(1, countStatements(() -> assertFalse(mrStockService.list(CENTRAL).isEmpty())));
+        assertEquals(1, countStatements(() -> mrStockService.get(CENTRAL, "P001")));
+        assertEquals(1, countStatements(() -> assertFalse(stockReceivedService.list(null).isEmpty())));
+        assertEquals(1, countStatements(() -> assertFalse(mrExpenseService.list().isEmpty())));
+        assertEquals(1, countStatements(() -> mrExpenseService.get(1700000001L)));
+        assertEquals(1, countStatements(() -> assertFalse(dailyPlanTaskService.list(null).isEmpty())));
+        assertEquals(1, countStatements(() -> mrDashboardService.get()));
+    }
+
+    @Test
+    void seedDemoData_IsNoOpWhenTablesArePopulated() {
+        int before = mrExpenseService.list().size();
+
+        mrExpenseService.seedDemoData();
+
+        assertEquals(before, mrExpenseService.list().size());
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,72 @@
+package com.kavyapharm.farmatrack;
+
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fails when the first successful login takes longer than the budget; tighten it per machine with
+//   mvn test -Dtest=StartupBenchmarkTest -Dstartup.budget-ms=8000
+// Each run's timings are written to target/startup-benchmark.json for CI to track over time.
+class StartupBenchmarkTest {
+
+    // Generous default so the suite catches regressions without flaking on slow CI machines.
+    private static final long TIME_TO_FIRST_LOGIN_BUDGET_MS = Long.getLong("startup.budget-ms", 60_000);
+    private static final long GIVE_UP_MS = Math.max(TIME_TO_FIRST_LOGIN_BUDGET_MS, 120_000);
+    private static final Path RESULT_FILE = Path.of("target", "startup-benchmark.json");
+
+    @Test
+    void timeToFirstSuccessfulLogin() throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FarmaTrackBackendApplication.class)
+                .run("--server.port=0", "--app.superadmin.enabled=true", "--app.demo-data.enabled=false")) {
+            long readyMs = (System.nanoTime() - start) / 1_000_000;
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"superadmin@kavyapharm.com\",\"password\":\"Superadmin@123\"}"))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+
+            // The superadmin is created after ApplicationReadyEvent, so poll until it can log in. Polling outlasts
+            // the budget, so an over-budget run still records and reports its real timing.
+            int status = 0;
+            long firstOkMs = -1;
+            while ((System.nanoTime() - start) / 1_000_000 < GIVE_UP_MS) {
+                status = client.send(login, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    firstOkMs = (System.nanoTime() - start) / 1_000_000;
+                    break;
+                }
+                Thread.sleep(20);
+            }
+            Files.createDirectories(RESULT_FILE.getParent());
+            Files.writeString(RESULT_FILE, "{\"readyMs\":%d,\"firstLoginMs\":%d,\"budgetMs\":%d}%n"
+                    .formatted(readyMs, firstOkMs, TIME_TO_FIRST_LOGIN_BUDGET_MS));
+
+            assertEquals(200, status);
+            assertTrue(firstOkMs >= 0 && firstOkMs < TIME_TO_FIRST_LOGIN_BUDGET_MS,
+                    "first login after " + firstOkMs + "ms, budget " + TIME_TO_FIRST_LOGIN_BUDGET_MS + "ms");
+
+            // A restart with an unchanged password keeps the stored hash instead of re-encoding it.
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            String hash = userRepository.findByEmailIgnoreCase("superadmin@kavyapharm.com").orElseThrow().getPasswordHash();
+            context.getBean(SuperAdminInitializer.class).ensureSuperAdmin();
+            assertEquals(hash, userRepository.findByEmailIgnoreCase("superadmin@kavyapharm.com").orElseThrow().getPasswordHash());
+        }
+    }
+}
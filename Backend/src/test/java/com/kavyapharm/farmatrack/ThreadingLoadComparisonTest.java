@@ -0,0 +1,121 @@
+package com.kavyapharm.farmatrack;
+
+import com.kavyapharm.farmatrack.security.CustomUserDetailsService;
+import com.kavyapharm.farmatrack.security.JwtUtil;
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Benchmark, not a correctness check: run it once per threading mode and compare the printed lines.
+//   mvn test -Dtest=ThreadingLoadComparisonTest -Dloadtest=true
+//   mvn test -Dtest=ThreadingLoadComparisonTest -Dloadtest=true -Dspring.threads.virtual.enabled=true   (JDK 21)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ThreadingLoadComparisonTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void thousandConcurrentClients() throws Exception {
+        User user = new User();
+        user.setName("Load Viewer");
+        user.setEmail("load.viewer@example.com");
+        user.setPasswordHash("unused");
+        user.setRole(UserRole.MANAGER);
+        user.setStatus(UserStatus.ACTIVE);
+        userRepository.save(user);
+        String token = jwtUtil.generateToken(userDetailsService.loadUserByUsername(user.getEmail()));
+
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(64)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/dcrs?limit=20"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+
+        assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                            long begin = System.nanoTime();
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            latenciesMicros.add((System.nanoTime() - begin) / 1_000);
+                            if (status != 200) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            assertTrue(done.await(5, TimeUnit.MINUTES));
+            long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+
+            List<Long> sorted = new ArrayList<>(latenciesMicros);
+            Collections.sort(sorted);
+            System.out.printf("threads=%s clients=%d requests=%d throughput=%.0f req/s p50=%dms p99=%dms failures=%d%n",
+                    Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform",
+                    CLIENTS, sorted.size(), sorted.size() * 1000.0 / Math.max(1, elapsedMs),
+                    percentile(sorted, 50) / 1_000, percentile(sorted, 99) / 1_000, failures.get());
+            assertEquals(0, failures.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.kavyapharm.farmatrack.auth.controller;
+
+import com.kavyapharm.farmatrack.auth.service.LastLoginRecorder;
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 500 concurrent BCrypt logins take about half a minute, so this only runs on request:
+//   mvn test -Dtest=AuthControllerLoadTest -Dloadtest=true
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "auth.hashing.queue-capacity=40",
+                "server.tomcat.threads.max=500"
+        })
+class AuthControllerLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthControllerLoadTest.class);
+
+    private static final int CONCURRENT_LOGINS = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BCryptPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+
+    @Test
+    void concurrentLogins_ShedLoadWith429AndCoalesceLastLogin() throws Exception {
+        User user = new User();
+        user.setName("Load MR");
+        user.setEmail("load.mr@example.com");
+        user.setPasswordHash(passwordEncoder.encode("Password@123"));
+        user.setRole(UserRole.MR);
+        user.setStatus(UserStatus.ACTIVE);
+        Long userId = userRepository.save(user).getId();
+
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(64)).build();
+        String body = "{\"email\":\"load.mr@example.com\",\"password\":\"Password@123\"}";
+
+        ExecutorService callers = Executors.newFixedThreadPool(CONCURRENT_LOGINS);
+        List<Long> latenciesMicros = Collections.synchronizedList(new ArrayList<>());
+        ConcurrentHashMap<Integer, Integer> statusCounts = new ConcurrentHashMap<>();
+        try {
+            List<CompletableFuture<Void>> calls = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_LOGINS; i++) {
+                calls.add(CompletableFuture.runAsync(() -> {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latenciesMicros.add((System.nanoTime() - start) / 1_000);
+                        statusCounts.merge(status, 1, Integer::sum);
+                    } catch (Exception e) {
+                        statusCounts.merge(-1, 1, Integer::sum);
+                    }
+                }, callers));
+            }
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        } finally {
+            callers.shutdownNow();
+        }
+
+        List<Long> sorted = new ArrayList<>(latenciesMicros);
+        Collections.sort(sorted);
+        logger.info("login load: {} requests, statuses={}, p50={}ms p99={}ms max={}ms",
+                sorted.size(), statusCounts,
+                percentile(sorted, 50) / 1_000, percentile(sorted, 99) / 1_000, sorted.get(sorted.size() - 1) / 1_000);
+
+        assertEquals(CONCURRENT_LOGINS, statusCounts.getOrDefault(200, 0) + statusCounts.getOrDefault(429, 0), statusCounts.toString());
+        assertTrue(statusCounts.getOrDefault(200, 0) > 0);
+
+        // Every successful login for the user collapses into a single pending write.
+        lastLoginRecorder.flush();
+        assertEquals(LocalDate.now(), userRepository.findById(userId).orElseThrow().getLastLogin());
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -2,22 +2,30 @@ package com.kavyapharm.farmatrack.auth.service;
 
 import com.kavyapharm.farmatrack.auth.dto.LoginRequest;
 import com.kavyapharm.farmatrack.auth.dto.LoginResponse;
+import com.kavyapharm.farmatrack.common.TooManyRequestsException;
 import com.kavyapharm.farmatrack.user.model.User;
 import com.kavyapharm.farmatrack.user.model.UserRole;
 import com.kavyapharm.farmatrack.user.model.UserStatus;
 import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import com.kavyapharm.farmatrack.security.CustomUserDetailsService;
 import com.kavyapharm.farmatrack.security.JwtUtil;
+import com.kavyapharm.farmatrack.security.PasswordHashingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class AuthServiceTest {
@@ -31,12 +39,19 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
-    @InjectMocks
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private LastLoginRecorder lastLoginRecorder;
+
     private AuthService authService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        authService = new AuthService(userRepository, passwordEncoder, jwtUtil, userDetailsService,
+                new PasswordHashingService(passwordEncoder, 1, 10), lastLoginRecorder);
     }
 
     @Test
@@ -56,11 +71,13 @@ class AuthServiceTest {
         when(jwtUtil.generateToken(any())).thenReturn("token");
 
         LoginRequest request = new LoginRequest(email, password);
-        LoginResponse response = authService.login(request);
+        LoginResponse response = authService.loginAsync(request).join();
 
         assertNotNull(response);
         assertEquals("token", response.token());
         assertEquals(email, response.user().email());
+        verify(lastLoginRecorder).record(eq(1L), any());
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -76,6 +93,33 @@ class AuthServiceTest {
 
         LoginRequest request = new LoginRequest(email, password);
 
-        assertThrows(IllegalArgumentException.class, () -> authService.login(request));
+        CompletionException failure = assertThrows(CompletionException.class, () -> authService.loginAsync(request).join());
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+
+    @Test
+    void login_ShedWhenHashingQueueIsFull() throws Exception {
+        User user = new User();
+        user.setEmail("busy@example.com");
+        user.setPasswordHash("encodedPassword");
+        when(userRepository.findByEmailIgnoreCase("busy@example.com")).thenReturn(Optional.of(user));
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(any(), eq("encodedPassword"))).thenAnswer(invocation -> {
+            release.await();
+            return false;
+        });
+        // One hashing thread and a one-slot queue: the third concurrent login has nowhere to go.
+        AuthService busy = new AuthService(userRepository, passwordEncoder, jwtUtil, userDetailsService,
+                new PasswordHashingService(passwordEncoder, 1, 1), lastLoginRecorder);
+        LoginRequest request = new LoginRequest("busy@example.com", "password");
+
+        CompletableFuture<LoginResponse> running = busy.loginAsync(request);
+        CompletableFuture<LoginResponse> queued = busy.loginAsync(request);
+        // Rejected before any future exists, so the controller answers 429 without waiting on the pool.
+        assertThrows(TooManyRequestsException.class, () -> busy.loginAsync(request));
+
+        release.countDown();
+        assertInstanceOf(IllegalArgumentException.class, assertThrows(CompletionException.class, running::join).getCause());
+        assertInstanceOf(IllegalArgumentException.class, assertThrows(CompletionException.class, queued::join).getCause());
     }
 }
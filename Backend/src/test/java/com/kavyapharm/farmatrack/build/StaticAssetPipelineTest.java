@@ -0,0 +1,86 @@
+package com.kavyapharm.farmatrack.build;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StaticAssetPipelineTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void process_FingerprintsLocalReferencesAndGzipsTextAssets() throws Exception {
+        Files.createDirectories(root.resolve("Admin/assets/js"));
+        Files.createDirectories(root.resolve("Assets/css"));
+        Files.createDirectories(root.resolve("Assets/img"));
+        Files.write(root.resolve("Assets/img/logo.png"), new byte[]{1, 2, 3});
+        Files.writeString(root.resolve("Assets/css/site.css"), "body { background: url('../img/logo.png'); }");
+        String script = "console.log('dashboard');\n".repeat(200);
+        Files.writeString(root.resolve("Admin/assets/js/script.js"), script);
+        Files.writeString(root.resolve("Admin/page.html"), """
+                <link rel="stylesheet" href="../Assets/css/site.css">
+                <link rel="stylesheet" href="https://cdn.example.com/all.min.css">
+                <script src="assets/js/script-0123456789abcdef0123456789abcdef.js?v=2"></script>
+                <a href="other.html">Other</a> <img src="missing.png">
+                """);
+
+        StaticAssetPipeline.Summary first = StaticAssetPipeline.process(root, null);
+
+        String css = Files.readString(root.resolve("Assets/css/site.css"));
+        String logoHash = DigestUtils.md5DigestAsHex(new byte[]{1, 2, 3});
+        assertEquals("body { background: url('../img/logo-" + logoHash + ".png'); }", css);
+        String cssHash = DigestUtils.md5DigestAsHex(css.getBytes(StandardCharsets.UTF_8));
+        String scriptHash = DigestUtils.md5DigestAsHex(script.getBytes(StandardCharsets.UTF_8));
+        String html = Files.readString(root.resolve("Admin/page.html"));
+        assertTrue(html.contains("href=\"../Assets/css/site-" + cssHash + ".css\""));
+        // A stale fingerprint from an earlier build is replaced, the query string kept.
+        assertTrue(html.contains("src=\"assets/js/script-" + scriptHash + ".js?v=2\""));
+        assertTrue(html.contains("href=\"https://cdn.example.com/all.min.css\""));
+        assertTrue(html.contains("href=\"other.html\""));
+        assertTrue(html.contains("src=\"missing.png\""));
+        assertEquals(3, first.rewrittenReferences());
+
+        Path gz = root.resolve("Admin/assets/js/script.js.gz");
+        assertTrue(Files.size(gz) < script.length());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(gz)))) {
+            assertEquals(script, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        // Too small to be worth it.
+        assertFalse(Files.exists(root.resolve("Assets/css/site.css.gz")));
+
+        assertEquals(0, StaticAssetPipeline.process(root, null).rewrittenReferences());
+        assertEquals(html, Files.readString(root.resolve("Admin/page.html")));
+    }
+
+    @Test
+    void process_WritesBrotliWithTheEncoderAndDropsItWithout() throws Exception {
+        // Stands in for the brotli CLI: echoes the -c input path's name so the call is visible in the output.
+        Path encoder = Files.writeString(Files.createDirectory(root.resolve("bin")).resolve("brotli"),
+                "#!/bin/sh\n[ \"$1 $2 $3\" = \"-q 11 -c\" ] && basename \"$4\"\n");
+        assumeTrue(encoder.toFile().setExecutable(true));
+        Files.createDirectories(root.resolve("static"));
+        Path script = Files.writeString(root.resolve("static/app.js"), "console.log('dashboard');\n".repeat(200));
+        Files.write(root.resolve("static/logo.png"), new byte[2048]);
+
+        StaticAssetPipeline.Summary summary = StaticAssetPipeline.process(root.resolve("static"), encoder);
+
+        assertEquals(1, summary.brotliFiles());
+        assertEquals("app.js\n", Files.readString(root.resolve("static/app.js.br")));
+        assertFalse(Files.exists(root.resolve("static/logo.png.br")));
+
+        StaticAssetPipeline.process(root.resolve("static"), null);
+
+        assertFalse(Files.exists(root.resolve("static/app.js.br")));
+        assertTrue(Files.exists(script.resolveSibling("app.js.gz")));
+    }
+}
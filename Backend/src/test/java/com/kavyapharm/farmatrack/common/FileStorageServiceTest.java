@@ -0,0 +1,122 @@
+package com.kavyapharm.farmatrack.common;
+
+import com.kavyapharm.farmatrack.expense.dto.CreateExpenseRequest;
+import com.kavyapharm.farmatrack.expense.dto.ExpenseResponse;
+import com.kavyapharm.farmatrack.expense.service.ExpenseService;
+import com.kavyapharm.farmatrack.mrexpense.dto.CreateMrExpenseRequest;
+import com.kavyapharm.farmatrack.mrexpense.dto.MrExpenseResponse;
+import com.kavyapharm.farmatrack.mrexpense.service.MrExpenseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "uploads.gc.grace-ms=0")
+class FileStorageServiceTest {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private UploadBlobRepository uploadBlobRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private MrExpenseService mrExpenseService;
+
+    @Value("${uploads.dir}")
+    private String uploadsDir;
+
+    @Autowired
+    private UploadBlobService uploadBlobService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void store_DeduplicatesIdenticalContentUnderShardedHashPath() {
+        byte[] receipt = ("receipt " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+
+        // Named differently, or not at all: still one blob, one file and one name.
+        StoredFile unnamed = store(receipt, null);
+        StoredFile first = store(receipt, "bill.JPG");
+        StoredFile retry = store(receipt, "bill-retry.jpeg");
+
+        String key = first.sha256().substring(0, 2) + "/" + first.sha256().substring(2, 4) + "/" + first.sha256();
+        assertEquals(key, unnamed.filename());
+        assertEquals(key + ".jpg", first.filename());
+        assertEquals(first.filename(), retry.filename());
+        assertEquals(Paths.get(uploadsDir).resolve(key), blobPath(first));
+        assertTrue(Files.exists(blobPath(first)));
+        assertEquals(1, uploadBlobRepository.findAll().stream().filter(b -> b.getSha256().equals(first.sha256())).count());
+    }
+
+    @Test
+    void place_LeavesNoFileWhenTheTransactionRollsBack() throws Exception {
+        String sha256 = "ab".repeat(32);
+        String key = "ab/ab/" + sha256;
+        Path partFile = Files.write(Paths.get(uploadsDir).resolve("." + UUID.randomUUID() + ".part"), new byte[]{1});
+        Path target = Paths.get(uploadsDir).resolve(key);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            uploadBlobService.place(key, sha256, 1, ".pdf", partFile, target);
+            status.setRollbackOnly();
+        });
+
+        assertFalse(Files.exists(target));
+        assertTrue(Files.exists(partFile));
+        assertTrue(uploadBlobRepository.findById(key).isEmpty());
+        Files.delete(partFile);
+    }
+
+    @Test
+    void collectGarbage_KeepsReferencedBlobsAndRemovesReleasedOnes() throws Exception {
+        StoredFile shared = store(("shared " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8), "a.pdf");
+        StoredFile orphan = store(("orphan " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8), "b.pdf");
+
+        ExpenseResponse expense = expenseService.create(
+                new CreateExpenseRequest("MR One", "Travel", 120.0, null, "Cab", List.of(shared.filename(), "legacy.pdf")));
+        MrExpenseResponse mrExpense = mrExpenseService.create(
+                new CreateMrExpenseRequest("Travel", 120.0, "2025-11-25", "Cab", shared.filename()));
+        assertEquals(2, uploadBlobRepository.findById(UploadBlobService.keyOf(shared.filename())).orElseThrow().getRefCount());
+
+        Thread.sleep(5);
+        fileStorageService.collectGarbage();
+        assertTrue(Files.exists(blobPath(shared)));
+        assertFalse(Files.exists(blobPath(orphan)));
+        assertTrue(uploadBlobRepository.findById(UploadBlobService.keyOf(orphan.filename())).isEmpty());
+
+        expenseService.delete(expense.id());
+        Thread.sleep(5);
+        fileStorageService.collectGarbage();
+        assertTrue(Files.exists(blobPath(shared)));
+
+        mrExpenseService.delete(mrExpense.id());
+        Thread.sleep(5);
+        fileStorageService.collectGarbage();
+        assertFalse(Files.exists(blobPath(shared)));
+        assertTrue(uploadBlobRepository.findById(UploadBlobService.keyOf(shared.filename())).isEmpty());
+    }
+
+    private StoredFile store(byte[] content, String filename) {
+        return fileStorageService.store(new ByteArrayInputStream(content), filename, content.length);
+    }
+
+    private Path blobPath(StoredFile stored) {
+        return Paths.get(uploadsDir).resolve(UploadBlobService.keyOf(stored.filename()));
+    }
+}
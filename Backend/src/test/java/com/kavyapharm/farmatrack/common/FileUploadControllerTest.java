@@ -0,0 +1,228 @@
+package com.kavyapharm.farmatrack.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kavyapharm.farmatrack.security.TestTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FileUploadControllerTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestTokens testTokens;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${uploads.dir}")
+    private String uploadsDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = testTokens.manager("upload.user@example.com", "Upload User");
+    }
+
+    @Test
+    void streamUpload_WritesBodyWithHashAndServesIt() throws Exception {
+        byte[] content = randomBytes(40_000);
+
+        HttpResponse<String> response = client.send(streamRequest("receipt.jpg")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(content)).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        String filename = body.get("filename").asText();
+        assertTrue(filename.endsWith(".jpg"));
+        assertEquals("assets/uploads/" + filename, body.get("url").asText());
+        assertEquals(content.length, body.get("size").asLong());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), body.get("sha256").asText());
+        assertArrayEquals(content, Files.readAllBytes(Paths.get(uploadsDir).resolve(UploadBlobService.keyOf(filename))));
+
+        HttpResponse<byte[]> served = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/" + body.get("url").asText())).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, served.statusCode());
+        assertArrayEquals(content, served.body());
+    }
+
+    @Test
+    void attachment_ServesImmutableWithEtagRangesAndNotModified() throws Exception {
+        // Large enough for the sendfile path.
+        byte[] content = randomBytes(60_000);
+        JsonNode uploaded = objectMapper.readTree(client.send(streamRequest("scan.pdf")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(content)).build(), HttpResponse.BodyHandlers.ofString()).body());
+        URI url = URI.create("http://localhost:" + port + "/" + uploaded.get("url").asText());
+        String etag = "\"" + uploaded.get("sha256").asText() + "\"";
+
+        HttpResponse<byte[]> full = client.send(HttpRequest.newBuilder(url).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, full.statusCode());
+        assertArrayEquals(content, full.body());
+        assertEquals(etag, full.headers().firstValue("ETag").orElseThrow());
+        assertEquals("application/pdf", full.headers().firstValue("Content-Type").orElseThrow());
+        assertTrue(full.headers().firstValue("Cache-Control").orElseThrow().contains("immutable"));
+
+        HttpResponse<byte[]> notModified = client.send(HttpRequest.newBuilder(url).header("If-None-Match", etag).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(304, notModified.statusCode());
+        assertEquals(0, notModified.body().length);
+
+        HttpResponse<byte[]> range = client.send(HttpRequest.newBuilder(url).header("Range", "bytes=100-50099").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(206, range.statusCode());
+        assertEquals("bytes 100-50099/60000", range.headers().firstValue("Content-Range").orElseThrow());
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 50_100), range.body());
+
+        HttpResponse<byte[]> suffix = client.send(HttpRequest.newBuilder(url).header("Range", "bytes=-10").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertArrayEquals(Arrays.copyOfRange(content, 59_990, 60_000), suffix.body());
+
+        HttpResponse<byte[]> staleIfRange = client.send(HttpRequest.newBuilder(url)
+                .header("Range", "bytes=0-9").header("If-Range", "\"other\"").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, staleIfRange.statusCode());
+        assertEquals(60_000, staleIfRange.body().length);
+
+        assertEquals(416, client.send(HttpRequest.newBuilder(url).header("Range", "bytes=70000-").build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode());
+        assertEquals(404, client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                + "/assets/uploads/00/00/" + "0".repeat(64) + ".pdf")).build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    @Test
+    void imageUpload_ExposesThumbnailVariantOnceGenerated() throws Exception {
+        BufferedImage photo = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = photo.createGraphics();
+        g.setColor(new Color(new Random().nextInt()));
+        g.fillRect(0, 0, 800, 1200);
+        g.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(photo, "png", png);
+
+        JsonNode uploaded = objectMapper.readTree(client.send(streamRequest("receipt.png")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(png.toByteArray())).build(), HttpResponse.BodyHandlers.ofString()).body());
+        assertEquals(uploaded.get("url").asText() + "?variant=thumb", uploaded.get("thumbnailUrl").asText());
+
+        // Until the worker finishes, the variant URL redirects to the original.
+        HttpRequest thumbRequest = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/" + uploaded.get("thumbnailUrl").asText())).build();
+        HttpResponse<byte[]> thumb = client.send(thumbRequest, HttpResponse.BodyHandlers.ofByteArray());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (thumb.statusCode() == 302 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            thumb = client.send(thumbRequest, HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        assertEquals(200, thumb.statusCode());
+        assertEquals("image/jpeg", thumb.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals("\"" + uploaded.get("sha256").asText() + "-thumb\"", thumb.headers().firstValue("ETag").orElseThrow());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumb.body()));
+        assertEquals(320, decoded.getWidth());
+        assertEquals(240, decoded.getHeight());
+        assertEquals(400, client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/"
+                + uploaded.get("url").asText() + "?variant=huge")).build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    @Test
+    void streamUpload_RejectsOversizeBodiesWithoutLeavingFiles() throws Exception {
+        byte[] content = randomBytes(100_000);
+
+        // Declared up front: refused on the Content-Length alone.
+        HttpResponse<String> declared = client.send(streamRequest("big.pdf")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(content)).build(), HttpResponse.BodyHandlers.ofString());
+        // Chunked: refused once the running count passes the limit.
+        HttpResponse<String> chunked = client.send(streamRequest("big.pdf")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(content))).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(413, declared.statusCode());
+        assertEquals(413, chunked.statusCode());
+        try (Stream<Path> files = Files.list(Paths.get(uploadsDir))) {
+            assertTrue(files.noneMatch(p -> p.getFileName().toString().endsWith(".pdf")
+                    || p.getFileName().toString().endsWith(".part")));
+        }
+    }
+
+    @Test
+    void multipartUpload_StillAcceptedAndHashed() throws Exception {
+        String boundary = "----farmatrack-test";
+        ByteArrayOutputStream multipart = new ByteArrayOutputStream();
+        multipart.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"bill.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\nhello\r\n"
+                + "--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/uploads"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart.toByteArray())).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertTrue(body.get("filename").asText().endsWith(".png"));
+        assertEquals(5, body.get("size").asLong());
+        assertEquals("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", body.get("sha256").asText());
+    }
+
+    @Test
+    void multipartUpload_AcceptsAFileOfExactlyTheSizeLimit() throws Exception {
+        String boundary = "----farmatrack-test";
+        ByteArrayOutputStream multipart = new ByteArrayOutputStream();
+        multipart.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"scan.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        multipart.write(randomBytes(64 * 1024));
+        multipart.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/uploads"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(multipart.toByteArray())).build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertEquals(64 * 1024, objectMapper.readTree(response.body()).get("size").asLong());
+    }
+
+    private HttpRequest.Builder streamRequest(String filename) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/uploads/stream"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/octet-stream")
+                .header("X-Filename", filename);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,77 @@
+package com.kavyapharm.farmatrack.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdGeneratorTest {
+
+    private static final long MAX_SAFE_JS_INTEGER = (1L << 53) - 1;
+
+    @Test
+    void nextId_UniqueAndOrderedAcrossThreads() throws Exception {
+        IdGenerator generator = new IdGenerator(3);
+        int threads = 16;
+        int perThread = 100_000 / threads;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> result : results) {
+                long[] ids = result.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(seen.add(ids[i]), "duplicate id " + ids[i]);
+                    assertTrue(ids[i] > 0 && ids[i] <= MAX_SAFE_JS_INTEGER);
+                    assertEquals(3, (ids[i] >> IdGenerator.SEQUENCE_BITS) & IdGenerator.MAX_NODE_ID);
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1]);
+                    }
+                }
+            }
+            assertEquals(threads * perThread, seen.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nextId_NewerThanLegacyMillisecondIds() {
+        assertTrue(new IdGenerator(0).nextId() > System.currentTimeMillis());
+    }
+
+    @Test
+    void nextStringId_FixedWidthAndSortable() {
+        IdGenerator generator = new IdGenerator(0);
+        String previous = generator.nextStringId();
+        for (int i = 0; i < 1_000; i++) {
+            String next = generator.nextStringId();
+            assertEquals(10, next.length());
+            assertTrue(next.compareTo(previous) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void constructor_RejectsOutOfRangeNode() {
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(IdGenerator.MAX_NODE_ID + 1));
+    }
+}
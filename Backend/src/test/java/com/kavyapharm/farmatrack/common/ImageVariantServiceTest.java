@@ -0,0 +1,90 @@
+package com.kavyapharm.farmatrack.common;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageVariantServiceTest {
+
+    private final ImageVariantService service = new ImageVariantService(1, 4);
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void generate_WritesDownscaledJpegsKeepingAspectRatio() throws Exception {
+        Path original = dir.resolve("a".repeat(64) + ".png");
+        BufferedImage photo = new BufferedImage(4000, 3000, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = photo.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, 2000, 3000);
+        g.dispose();
+        ImageIO.write(photo, "png", original.toFile());
+
+        service.generate(original);
+
+        BufferedImage preview = ImageIO.read(ImageVariantService.variantPath(original, ImageVariantService.Variant.PREVIEW).toFile());
+        BufferedImage thumb = ImageIO.read(ImageVariantService.variantPath(original, ImageVariantService.Variant.THUMB).toFile());
+        assertEquals(1280, preview.getWidth());
+        assertEquals(960, preview.getHeight());
+        assertEquals(320, thumb.getWidth());
+        assertEquals(240, thumb.getHeight());
+        // Transparent right half is flattened onto white, the painted left half stays blue.
+        Color right = new Color(thumb.getRGB(300, 120));
+        Color left = new Color(thumb.getRGB(20, 120));
+        assertTrue(right.getRed() > 240 && right.getGreen() > 240 && right.getBlue() > 240);
+        assertTrue(left.getRed() < 20 && left.getBlue() > 200);
+        assertEquals("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa.thumb.jpg",
+                ImageVariantService.variantPath(original, ImageVariantService.Variant.THUMB).getFileName().toString());
+    }
+
+    @Test
+    void requestVariants_SkipsNonImagesAndMarksUndecodableFilesOnce() throws Exception {
+        Path pdf = Files.writeString(dir.resolve("b".repeat(64) + ".pdf"), "%PDF-1.4");
+        Path broken = Files.writeString(dir.resolve("c".repeat(64) + ".jpg"), "not a jpeg");
+        // A real JPEG header with the body cut off gets a reader, which then fails mid-decode.
+        Path truncated = dir.resolve("d".repeat(64) + ".jpg");
+        BufferedImage photo = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(photo, "jpg", truncated.toFile());
+        Files.write(truncated, Arrays.copyOf(Files.readAllBytes(truncated), 200));
+
+        service.requestVariants(pdf);
+        service.requestVariants(broken);
+        service.requestVariants(truncated);
+        awaitIdle();
+
+        assertFalse(service.undecodable(pdf));
+        assertTrue(service.undecodable(broken));
+        assertTrue(service.undecodable(truncated));
+        try (var files = Files.list(dir)) {
+            assertEquals(5, files.count());
+        }
+
+        service.requestVariants(broken);
+        service.requestVariants(truncated);
+        assertEquals(0, service.pending());
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.pending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, service.pending());
+    }
+}
@@ -0,0 +1,150 @@
+package com.kavyapharm.farmatrack.common;
+
+import com.kavyapharm.farmatrack.dcr.model.DcrReport;
+import com.kavyapharm.farmatrack.dcr.model.DcrSampleItem;
+import com.kavyapharm.farmatrack.dcr.repository.DcrRepository;
+import com.kavyapharm.farmatrack.security.TestTokens;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "management.server.port=0",
+                "management.endpoints.web.exposure.include=prometheus",
+                "management.metrics.distribution.percentiles-histogram.http.server.requests=true"
+        })
+@AutoConfigureObservability
+class RequestSqlMetricsTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestTokens testTokens;
+
+    @Autowired
+    private DcrRepository dcrRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = testTokens.manager("metrics.viewer@example.com", "Metrics Viewer");
+    }
+
+    @Test
+    void responsesCarrySqlCountsThatStayFlatAsReportsGrow() throws Exception {
+        dcrRepository.deleteAll();
+        seedReports(0, 2);
+        HttpResponse<String> few = get("/api/dcrs");
+        seedReports(2, 20);
+        HttpResponse<String> many = get("/api/dcrs");
+
+        assertEquals(200, many.statusCode());
+        long fewStatements = Long.parseLong(few.headers().firstValue(SqlStatementCountAdvice.STATEMENT_COUNT_HEADER).orElseThrow());
+        long manyStatements = Long.parseLong(many.headers().firstValue(SqlStatementCountAdvice.STATEMENT_COUNT_HEADER).orElseThrow());
+        assertEquals(fewStatements, manyStatements);
+        assertEquals("22", many.headers().firstValue(SqlStatementCountAdvice.ENTITY_LOAD_COUNT_HEADER).orElseThrow());
+    }
+
+    @Test
+    void prometheusEndpointExposesRequestJvmPoolAndHibernateMetrics() throws Exception {
+        get("/api/dcrs");
+
+        HttpResponse<String> scrape = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + managementPort + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, scrape.statusCode());
+        String body = scrape.body();
+        assertTrue(body.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(body.contains("uri=\"/api/dcrs\""));
+        assertTrue(body.contains("http_server_requests_sql_statements_bucket{"));
+        assertTrue(body.contains("http_server_requests_entity_loads_count{"));
+        assertTrue(body.contains("hikaricp_connections_active"));
+        assertTrue(body.contains("hibernate_statements_total"));
+        assertTrue(body.contains("jvm_gc_"));
+        assertTrue(body.contains("jvm_memory_used_bytes"));
+    }
+
+    @Test
+    void streamedExportIsRecordedWithTheQueriesItsBodyRan() throws Exception {
+        dcrRepository.deleteAll();
+        seedReports(0, 3);
+        get("/api/dcrs");
+        DistributionSummary before = exportSummary("http.server.requests.sql.statements");
+        long countBefore = before == null ? 0 : before.count();
+        double statementsBefore = before == null ? 0 : before.totalAmount();
+
+        HttpResponse<String> export = get("/api/dcrs/export?format=ndjson");
+        assertEquals(200, export.statusCode());
+
+        // Recorded once, by the async dispatch that completes the request, including the query run on the executor.
+        long deadline = System.currentTimeMillis() + 5_000;
+        DistributionSummary after = exportSummary("http.server.requests.sql.statements");
+        while ((after == null || after.count() == countBefore) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            after = exportSummary("http.server.requests.sql.statements");
+        }
+        assertNotNull(after);
+        assertEquals(countBefore + 1, after.count());
+        assertTrue(after.totalAmount() - statementsBefore >= 1, "statements: " + (after.totalAmount() - statementsBefore));
+    }
+
+    private DistributionSummary exportSummary(String name) {
+        return meterRegistry.find(name).tag("uri", "/api/dcrs/export").summary();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void seedReports(int firstId, int count) {
+        List<DcrReport> reports = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DcrReport report = new DcrReport();
+            report.setReportId((long) (firstId + i + 1));
+            report.setVisitTitle("Visit");
+            report.setVisitType("Follow-up");
+            report.setDoctorId("D1");
+            report.setDoctorName("Dr. Metrics");
+            report.setClinicLocation("Clinic");
+            report.setDateTime("2026-10-17T10:00");
+            report.setRating("4");
+            report.setSubmissionTime("2026-10-17T10:05:00Z");
+            DcrSampleItem item = new DcrSampleItem();
+            item.setProductId("P001");
+            item.setProductName("Product X");
+            item.setQuantity(1);
+            report.setSamplesGiven(new ArrayList<>(List.of(item)));
+            reports.add(report);
+        }
+        dcrRepository.saveAll(reports);
+    }
+}
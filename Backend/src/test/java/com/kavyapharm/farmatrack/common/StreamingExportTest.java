@@ -0,0 +1,195 @@
+package com.kavyapharm.farmatrack.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kavyapharm.farmatrack.expense.model.Expense;
+import com.kavyapharm.farmatrack.expense.repository.ExpenseRepository;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovement;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovementType;
+import com.kavyapharm.farmatrack.mrstock.repository.StockMovementRepository;
+import com.kavyapharm.farmatrack.security.TestTokens;
+import com.kavyapharm.farmatrack.stockreceived.model.StockReceivedEntry;
+import com.kavyapharm.farmatrack.stockreceived.repository.StockReceivedRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StreamingExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestTokens testTokens;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private StockReceivedRepository stockReceivedRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = testTokens.manager("streaming.export@example.com", "Streaming Export");
+    }
+
+    @Test
+    void expenseExport_GroupsAttachmentsAndKeepsBothRangeEndsInclusive() throws Exception {
+        long before = saveExpense("2019-03-01").getId();
+        long withThree = saveExpense("2019-03-02", "a.png", "b.png", "c.pdf").getId();
+        long withNone = saveExpense("2019-03-02").getId();
+        long onTo = saveExpense("2019-03-05", "d.png").getId();
+        long after = saveExpense("2019-03-06", "e.png").getId();
+
+        List<JsonNode> ranged = ndjson(export("/api/expenses/export?format=ndjson&from=2019-03-02&to=2019-03-05"));
+        assertEquals(List.of(withThree, withNone, onTo), ranged.stream().map(row -> row.get("id").asLong()).toList());
+        assertEquals(Set.of("a.png", "b.png", "c.pdf"), texts(ranged.get(0).get("attachments")));
+        assertEquals(0, ranged.get(1).get("attachments").size());
+        assertEquals(Set.of("d.png"), texts(ranged.get(2).get("attachments")));
+
+        Set<Long> untilTo = ids(ndjson(export("/api/expenses/export?format=ndjson&to=2019-03-05")));
+        assertTrue(untilTo.containsAll(List.of(before, withThree, withNone, onTo)));
+        assertFalse(untilTo.contains(after));
+
+        Set<Long> fromOnTo = ids(ndjson(export("/api/expenses/export?format=ndjson&from=2019-03-05")));
+        assertTrue(fromOnTo.containsAll(List.of(onTo, after)));
+        assertFalse(fromOnTo.contains(withThree));
+
+        String[] csv = export("/api/expenses/export?from=2019-03-02&to=2019-03-02").split("\r\n");
+        assertEquals(3, csv.length);
+        assertEquals(Set.of("a.png", "b.png", "c.pdf"), Set.of(csv[1].split(",")[8].split(";")));
+    }
+
+    @Test
+    void stockReceivedExport_IncludesTheWholeToDay() throws Exception {
+        saveReceipt("2019-03-31");
+        long onFrom = saveReceipt("2019-04-01");
+        long onTo = saveReceipt("2019-04-03");
+        saveReceipt("2019-04-04");
+
+        String[] lines = export("/api/stock-received/export?from=2019-04-01&to=2019-04-03").split("\r\n");
+
+        assertEquals("id,date,productId,quantity,notes", lines[0]);
+        assertEquals(List.of(onFrom, onTo), Arrays.stream(lines).skip(1).map(line -> Long.parseLong(line.split(",")[0])).toList());
+    }
+
+    @Test
+    void movementExport_MapsDaysOntoIdBoundaries() throws Exception {
+        Instant dayStart = Instant.parse("2024-03-01T00:00:00Z");
+        Instant nextDay = Instant.parse("2024-03-02T00:00:00Z");
+        long firstOfDay = IdGenerator.firstIdAt(dayStart);
+        long firstOfNextDay = IdGenerator.firstIdAt(nextDay);
+        List<StockMovement> movements = new ArrayList<>();
+        for (long id : new long[]{firstOfDay - 1, firstOfDay, firstOfNextDay - 1, firstOfNextDay}) {
+            StockMovement movement = new StockMovement();
+            movement.setId(id);
+            movement.setMrId(0L);
+            movement.setProductId("P001");
+            movement.setDelta(1);
+            movement.setType(StockMovementType.ADJUSTMENT);
+            movement.setOccurredAt(id < firstOfDay ? dayStart.minusMillis(1) : id < firstOfNextDay ? dayStart : nextDay);
+            movements.add(movement);
+        }
+        stockMovementRepository.saveAll(movements);
+
+        String[] day = export("/api/mr-stock/movements/export?from=2024-03-01&to=2024-03-01").split("\r\n");
+        assertEquals(List.of(firstOfDay, firstOfNextDay - 1), Arrays.stream(day).skip(1).map(line -> Long.parseLong(line.split(",")[0])).toList());
+
+        String[] untilDayBefore = export("/api/mr-stock/movements/export?to=2024-02-29").split("\r\n");
+        assertEquals(2, untilDayBefore.length);
+        assertTrue(untilDayBefore[1].startsWith((firstOfDay - 1) + ","));
+    }
+
+    @Test
+    void exportTimeout_AppliesOnlyToExportResponses() throws Exception {
+        MvcResult export = mockMvc.perform(get("/api/stock-received/export").header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"streaming.export@example.com\",\"password\":\"wrong\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(600_000L, export.getRequest().getAsyncContext().getTimeout());
+        assertNotEquals(600_000L, login.getRequest().getAsyncContext().getTimeout());
+    }
+
+    private String export(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private List<JsonNode> ndjson(String body) throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.lines().toList()) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+
+    private static Set<Long> ids(List<JsonNode> rows) {
+        return rows.stream().map(row -> row.get("id").asLong()).collect(Collectors.toSet());
+    }
+
+    private static Set<String> texts(JsonNode array) {
+        Set<String> values = new HashSet<>();
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    private Expense saveExpense(String date, String... attachments) {
+        Expense expense = new Expense();
+        expense.setMrName("Export Tester");
+        expense.setCategory("Travel");
+        expense.setAmount(120.0);
+        expense.setStatus("PENDING");
+        expense.setSubmittedDate(LocalDate.parse(date));
+        expense.setExpenseDate(LocalDate.parse(date));
+        expense.setAttachments(new ArrayList<>(List.of(attachments)));
+        return expenseRepository.save(expense);
+    }
+
+    private long saveReceipt(String date) {
+        StockReceivedEntry entry = new StockReceivedEntry();
+        entry.setProductId("P001");
+        entry.setQuantity(5);
+        entry.setDate(date);
+        return stockReceivedRepository.save(entry).getId();
+    }
+}
@@ -0,0 +1,69 @@
+package com.kavyapharm.farmatrack.config;
+
+import com.kavyapharm.farmatrack.common.ExportRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportDataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(ExportDataSourceConfig.class);
+
+    @Test
+    void mysql_OnlyTheExportPoolUsesCursorFetch() {
+        contextRunner
+                .withPropertyValues("spring.datasource.url=jdbc:mysql://localhost:3306/farma_track?useSSL=false",
+                        "spring.datasource.hikari.maximum-pool-size=7")
+                .run(context -> {
+                    assertInstanceOf(ExportRoutingDataSource.class, context.getBean(DataSource.class));
+                    HikariDataSource main = context.getBean("mainDataSource", HikariDataSource.class);
+                    HikariDataSource export = context.getBean("exportDataSource", HikariDataSource.class);
+                    assertEquals("jdbc:mysql://localhost:3306/farma_track?useSSL=false", main.getJdbcUrl());
+                    assertEquals(7, main.getMaximumPoolSize());
+                    assertEquals("jdbc:mysql://localhost:3306/farma_track?useSSL=false&useCursorFetch=true", export.getJdbcUrl());
+                    assertEquals(2, export.getMaximumPoolSize());
+                });
+    }
+
+    @Test
+    void otherDatabases_KeepTheSingleAutoConfiguredPool() {
+        contextRunner
+                .withPropertyValues("spring.datasource.url=jdbc:h2:mem:export-config")
+                .run(context -> {
+                    assertFalse(context.containsBean("exportDataSource"));
+                    assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+                });
+    }
+
+    @Test
+    void routing_HandsOutExportConnectionsOnlyWhileExporting() throws Exception {
+        DataSource main = mock(DataSource.class);
+        DataSource export = mock(DataSource.class);
+        Connection mainConnection = mock(Connection.class);
+        Connection exportConnection = mock(Connection.class);
+        when(main.getConnection()).thenReturn(mainConnection);
+        when(export.getConnection()).thenReturn(exportConnection);
+        ExportRoutingDataSource routing = new ExportRoutingDataSource(main, export);
+        routing.afterPropertiesSet();
+
+        assertSame(mainConnection, routing.getConnection());
+        ExportRoutingDataSource.whileExporting(() -> {
+            try {
+                assertSame(exportConnection, routing.getConnection());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertSame(mainConnection, routing.getConnection());
+    }
+}
@@ -0,0 +1,68 @@
+package com.kavyapharm.farmatrack.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.util.DigestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StaticAssetServingTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void html_RevalidatesThroughEtag() throws Exception {
+        HttpResponse<String> page = get("/login.html", null);
+        assertEquals(200, page.statusCode());
+        assertEquals("no-cache", page.headers().firstValue("Cache-Control").orElseThrow());
+        String etag = page.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> revalidated = get("/login.html", etag);
+        assertEquals(304, revalidated.statusCode());
+        assertTrue(revalidated.body().isEmpty());
+    }
+
+    @Test
+    void fingerprintedAsset_IsImmutableAndStaleFingerprintIsNotFound() throws Exception {
+        byte[] script = Files.readAllBytes(Paths.get("../Frontend/KavyaPharma/Farma_Track/Admin_pharma/assets/js/script.js"));
+        String hash = DigestUtils.md5DigestAsHex(script);
+
+        HttpResponse<byte[]> versioned = client.send(HttpRequest.newBuilder(URI.create(
+                "http://localhost:" + port + "/Admin_pharma/assets/js/script-" + hash + ".js")).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, versioned.statusCode());
+        assertArrayEquals(script, versioned.body());
+        assertTrue(versioned.headers().firstValue("Cache-Control").orElseThrow().contains("immutable"));
+
+        assertEquals("no-cache", get("/Admin_pharma/assets/js/script.js", null).headers().firstValue("Cache-Control").orElseThrow());
+        assertEquals(404, get("/Admin_pharma/assets/js/script-0123456789abcdef0123456789abcdef.js", null).statusCode());
+    }
+
+    @Test
+    void builtCopy_IsServedWithItsPrecompressedVariant() throws Exception {
+        // Only the built classpath copy has .gz siblings, so an encoded response shows it is the one being served.
+        HttpResponse<byte[]> page = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login.html"))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, page.statusCode());
+        assertEquals("gzip", page.headers().firstValue("Content-Encoding").orElseThrow());
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
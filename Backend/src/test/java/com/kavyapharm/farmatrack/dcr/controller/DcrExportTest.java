@@ -0,0 +1,152 @@
+package com.kavyapharm.farmatrack.dcr.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kavyapharm.farmatrack.dcr.model.DcrReport;
+import com.kavyapharm.farmatrack.dcr.model.DcrSampleItem;
+import com.kavyapharm.farmatrack.dcr.repository.DcrRepository;
+import com.kavyapharm.farmatrack.security.TestTokens;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class DcrExportTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestTokens testTokens;
+
+    @Autowired
+    private DcrRepository dcrRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = testTokens.manager("export.viewer@example.com", "Export Viewer");
+
+        dcrRepository.deleteAll();
+        seedReports(1, 600, "2025-01-15T10:00", 2);
+        seedReports(2001, 400, "2025-02-10T10:00", 2);
+        seedReports(4001, 1, "2025-02-11T09:00", 0);
+    }
+
+    @Test
+    void csvExport_StreamsFilteredReportsWithGroupedSamples() throws Exception {
+        HttpResponse<String> response = get("/api/dcrs/export?format=csv&from=2025-02-01&to=2025-02-28");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/csv"));
+        assertEquals("attachment; filename=\"dcrs.csv\"", response.headers().firstValue("Content-Disposition").orElseThrow());
+
+        String[] lines = response.body().split("\r\n");
+        assertEquals(1 + 400 + 1, lines.length);
+        assertTrue(lines[0].startsWith("reportId,dateTime,visitTitle"));
+        assertEquals("2001,2025-02-10T10:00,Visit,Follow-up,D1,Dr. Export,Clinic,4,\"Says \"\"hi\"\", twice\",P001:1;P002:2,2025-02-10T10:05:00Z", lines[1]);
+        assertTrue(lines[lines.length - 1].startsWith("4001,2025-02-11T09:00,"));
+        assertTrue(lines[lines.length - 1].endsWith(",,2025-02-10T10:05:00Z"));
+    }
+
+    @Test
+    void ndjsonExport_WritesOneReportPerLineWithConstantStatementCount() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        HttpResponse<String> january = get("/api/dcrs/export?format=ndjson&to=2025-01-31");
+        long januaryStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        HttpResponse<String> all = get("/api/dcrs/export?format=ndjson");
+        long allStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(200, all.statusCode());
+        assertTrue(all.headers().firstValue("Content-Type").orElse("").startsWith("application/x-ndjson"));
+        assertEquals(600, january.body().lines().count());
+        List<String> lines = all.body().lines().toList();
+        assertEquals(1001, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1, first.get("reportId").asLong());
+        assertEquals(2, first.get("samplesGiven").size());
+        assertEquals("P002", first.get("samplesGiven").get(1).get("productId").asText());
+        assertEquals(0, objectMapper.readTree(lines.get(1000)).get("samplesGiven").size());
+        // One cursor query however many reports and samples are exported.
+        assertEquals(januaryStatements, allStatements);
+    }
+
+    @Test
+    void expenseStockReceivedAndMovementExports_Stream() throws Exception {
+        HttpResponse<String> expenses = get("/api/expenses/export?format=ndjson&from=2020-01-01");
+        HttpResponse<String> received = get("/api/stock-received/export?from=2025-11-01&to=2025-11-01");
+        HttpResponse<String> movements = get("/api/mr-stock/movements/export");
+
+        assertEquals(200, expenses.statusCode());
+        assertEquals(200, received.statusCode());
+        assertEquals(5, received.body().split("\r\n").length);
+        assertTrue(received.body().startsWith("id,date,productId,quantity,notes\r\n"));
+        assertEquals(200, movements.statusCode());
+        assertTrue(movements.body().contains(",P001,ADJUSTMENT,100,OPENING_BALANCE"));
+    }
+
+    @Test
+    void export_RejectsUnknownFormatAndInvertedRange() throws Exception {
+        assertEquals(400, get("/api/dcrs/export?format=xlsx").statusCode());
+        assertEquals(400, get("/api/dcrs/export?from=2025-03-01&to=2025-02-01").statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void seedReports(long firstId, int count, String dateTime, int samples) {
+        List<DcrReport> reports = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DcrReport report = new DcrReport();
+            report.setReportId(firstId + i);
+            report.setVisitTitle("Visit");
+            report.setVisitType("Follow-up");
+            report.setDoctorId("D1");
+            report.setDoctorName("Dr. Export");
+            report.setClinicLocation("Clinic");
+            report.setDateTime(dateTime);
+            report.setRating("4");
+            report.setRemarks("Says \"hi\", twice");
+            report.setSubmissionTime("2025-02-10T10:05:00Z");
+            List<DcrSampleItem> items = new ArrayList<>();
+            for (int s = 1; s <= samples; s++) {
+                DcrSampleItem item = new DcrSampleItem();
+                item.setProductId("P00" + s);
+                item.setProductName("Product " + s);
+                item.setQuantity(s);
+                items.add(item);
+            }
+            report.setSamplesGiven(items);
+            reports.add(report);
+        }
+        dcrRepository.saveAll(reports);
+    }
+}
@@ -0,0 +1,270 @@
+package com.kavyapharm.farmatrack.dcr.service;
+
+import com.kavyapharm.farmatrack.dcr.dto.CreateDcrRequest;
+import com.kavyapharm.farmatrack.dcr.dto.DcrPageResponse;
+import com.kavyapharm.farmatrack.dcr.dto.DcrResponse;
+import com.kavyapharm.farmatrack.dcr.dto.DcrSampleItemRequest;
+import com.kavyapharm.farmatrack.dcr.dto.UpdateDcrRequest;
+import com.kavyapharm.farmatrack.dcr.model.DcrReport;
+import com.kavyapharm.farmatrack.dcr.model.DcrSampleItem;
+import com.kavyapharm.farmatrack.dcr.repository.DcrRepository;
+import com.kavyapharm.farmatrack.mrstock.dto.UpdateMrStockItemRequest;
+import com.kavyapharm.farmatrack.mrstock.dto.MrStockItemResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.MrStockTotalResponse;
+import com.kavyapharm.farmatrack.mrstock.service.MrStockService;
+import com.kavyapharm.farmatrack.mrstock.service.StockOwner;
+import com.kavyapharm.farmatrack.security.CustomUserDetails;
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.kavyapharm.farmatrack.mrstock.service.StockOwner.CENTRAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DcrServiceTest {
+
+    @Autowired
+    private DcrService dcrService;
+
+    @Autowired
+    private DcrRepository dcrRepository;
+
+    @Autowired
+    private MrStockService mrStockService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        dcrRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void list_QueryCountIndependentOfReportCount() {
+        seedReports(1, 3);
+        long fewReports = countStatements(() -> assertEquals(3, dcrService.list().size()));
+
+        seedReports(100, 40);
+        long manyReports = countStatements(() -> assertEquals(43, dcrService.list().size()));
+
+        assertEquals(1, fewReports);
+        assertEquals(fewReports, manyReports);
+    }
+
+    @Test
+    void list_LoadsSamplesForEveryReport() {
+        seedReports(1, 5);
+
+        List<DcrResponse> reports = dcrService.list();
+
+        assertEquals(5, reports.size());
+        reports.forEach(r -> assertEquals(2, r.samplesGiven().size()));
+        assertEquals(5L, reports.get(0).reportId());
+    }
+
+    @Test
+    void page_QueryCountIndependentOfPageSize() {
+        seedReports(1, 60);
+
+        long smallPage = countStatements(() -> assertEquals(5, dcrService.page(null, 5, null, null, null, null).items().size()));
+        long largePage = countStatements(() -> assertEquals(50, dcrService.page(null, 50, null, null, null, null).items().size()));
+
+        assertEquals(2, smallPage);
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void page_FollowsCursorUntilExhausted() {
+        seedReports(1, 7);
+
+        DcrPageResponse first = dcrService.page(null, 3, null, null, null, null);
+        DcrPageResponse second = dcrService.page(first.nextCursor(), 3, null, null, null, null);
+        DcrPageResponse third = dcrService.page(second.nextCursor(), 3, null, null, null, null);
+
+        assertEquals(List.of(7L, 6L, 5L), first.items().stream().map(DcrResponse::reportId).toList());
+        assertEquals(List.of(4L, 3L, 2L), second.items().stream().map(DcrResponse::reportId).toList());
+        assertEquals(List.of(1L), third.items().stream().map(DcrResponse::reportId).toList());
+        assertNull(third.nextCursor());
+    }
+
+    @Test
+    void page_AppliesOnlyTheGivenFilters() {
+        seedReports(1, 12);
+
+        DcrPageResponse first = dcrService.page(null, 2, "D1", null, null, null);
+        DcrPageResponse second = dcrService.page(first.nextCursor(), 2, "D1", null, null, null);
+
+        assertEquals(List.of(10L, 7L), first.items().stream().map(DcrResponse::reportId).toList());
+        assertEquals(List.of(4L, 1L), second.items().stream().map(DcrResponse::reportId).toList());
+        assertNull(second.nextCursor());
+        assertEquals(12, dcrService.page(null, 50, null, "Doctor Visit", null, null).items().size());
+        assertTrue(dcrService.page(null, 50, "D1", "Chemist Visit", null, null).items().isEmpty());
+    }
+
+    @Test
+    void update_AdjustsStockByNetDifferenceOnly() {
+        mrStockService.update(CENTRAL, "P001", new UpdateMrStockItemRequest("Product X (500mg)", 20));
+        mrStockService.update(CENTRAL, "P002", new UpdateMrStockItemRequest("Product Y Syrup (100ml)", 20));
+        mrStockService.update(CENTRAL, "P003", new UpdateMrStockItemRequest("Product Z Cream", 20));
+
+        DcrResponse created = dcrService.create(new CreateDcrRequest("Visit", "Doctor Visit", "D1", "Dr. Test", "Clinic",
+                "2025-11-20T10:00", "5", null, List.of(sampleRequest("P001", 5), sampleRequest("P002", 5))));
+        dcrService.update(created.reportId(), new UpdateDcrRequest("Visit", "Doctor Visit", "D1", "Dr. Test", "Clinic",
+                "2025-11-20T10:00", "5", null, List.of(sampleRequest("P001", 8), sampleRequest("P003", 2))));
+
+        assertEquals(12, mrStockService.get(CENTRAL, "P001").stock());
+        assertEquals(20, mrStockService.get(CENTRAL, "P002").stock());
+        assertEquals(18, mrStockService.get(CENTRAL, "P003").stock());
+
+        dcrService.delete(created.reportId());
+
+        assertEquals(20, mrStockService.get(CENTRAL, "P001").stock());
+        assertEquals(20, mrStockService.get(CENTRAL, "P003").stock());
+    }
+
+    @Test
+    void create_MrDrawsOnCentralOnlyUntilTheirPartitionExists() {
+        mrStockService.update(CENTRAL, "P004", new UpdateMrStockItemRequest("Sample Kit A", 30));
+        StockOwner mr = signInAsMr(9001L, "East");
+
+        // Nothing was issued or received to this MR yet, so their samples still come out of the central pool.
+        assertTrue(mrStockService.list(mr).isEmpty());
+        dcrService.create(new CreateDcrRequest("Visit", "Doctor Visit", "D1", "Dr. Test", "Clinic",
+                "2025-11-20T10:00", "5", null, List.of(sampleRequest("P004", 1))));
+        assertEquals(29, mrStockService.get(CENTRAL, "P004").stock());
+        assertTrue(mrStockService.list(mr).isEmpty());
+
+        mrStockService.issue(mr, "P004", 20);
+        assertEquals(9, mrStockService.get(CENTRAL, "P004").stock());
+        assertEquals(20, stockIn(mrStockService.list(mr), "P004"));
+
+        // From the first issue on, only their own partition is drawn on.
+        DcrResponse created = dcrService.create(new CreateDcrRequest("Visit", "Doctor Visit", "D1", "Dr. Test", "Clinic",
+                "2025-11-20T10:00", "5", null, List.of(sampleRequest("P004", 12))));
+        assertEquals(12, created.samplesGiven().get(0).quantity());
+        assertEquals(8, mrStockService.get(mr, "P004").stock());
+        assertEquals(9, mrStockService.get(CENTRAL, "P004").stock());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> dcrService.create(new CreateDcrRequest(
+                "Visit", "Doctor Visit", "D1", "Dr. Test", "Clinic", "2025-11-20T10:00", "5", null, List.of(sampleRequest("P004", 9)))));
+        assertEquals("Insufficient stock for product P004", ex.getMessage());
+        assertEquals(8, mrStockService.get(mr, "P004").stock());
+        assertEquals(9, mrStockService.get(CENTRAL, "P004").stock());
+
+        dcrService.delete(created.reportId());
+        assertEquals(20, mrStockService.get(mr, "P004").stock());
+    }
+
+    @Test
+    void delete_RefundCreatesTheMrsRowInTheirTerritory() {
+        User mr = new User();
+        mr.setName("Territory MR");
+        mr.setEmail("territory.mr@example.com");
+        mr.setPasswordHash("unused");
+        mr.setRole(UserRole.MR);
+        mr.setStatus(UserStatus.ACTIVE);
+        mr.setTerritory("Refund-West");
+        long mrId = userRepository.save(mr).getId();
+        DcrReport report = new DcrReport();
+        report.setReportId(7001L);
+        report.setMrId(mrId);
+        report.setVisitTitle("Visit");
+        report.setVisitType("Doctor Visit");
+        report.setDoctorId("D1");
+        report.setDoctorName("Dr. Test");
+        report.setClinicLocation("Clinic");
+        report.setDateTime("2025-11-20T10:00");
+        report.setRating("5");
+        report.setSubmissionTime("2025-11-20T10:30:00Z");
+        report.setSamplesGiven(new ArrayList<>(List.of(sample("P002", 6))));
+        dcrRepository.save(report);
+
+        // Deleted by a manager: the MR has no row yet, and the one created for the refund must count in their territory.
+        dcrService.delete(7001L);
+
+        List<MrStockTotalResponse> totals = mrStockService.totals("Refund-West");
+        assertEquals(List.of("P002"), totals.stream().map(MrStockTotalResponse::productId).toList());
+        assertEquals(6, totals.get(0).totalStock());
+    }
+
+    private static StockOwner signInAsMr(long id, String territory) {
+        User user = new User();
+        user.setId(id);
+        user.setName("MR " + id);
+        user.setEmail("mr" + id + "@example.com");
+        user.setRole(UserRole.MR);
+        user.setTerritory(territory);
+        CustomUserDetails details = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+        return new StockOwner(id, territory);
+    }
+
+    private static int stockIn(List<MrStockItemResponse> items, String productId) {
+        return items.stream().filter(i -> i.id().equals(productId)).findFirst().orElseThrow().stock();
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedReports(long firstId, int count) {
+        List<DcrReport> reports = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            DcrReport report = new DcrReport();
+            report.setReportId(id);
+            report.setVisitTitle("Visit " + id);
+            report.setVisitType("Doctor Visit");
+            report.setDoctorId("D" + (id % 3));
+            report.setDoctorName("Dr. Test");
+            report.setClinicLocation("Clinic");
+            report.setDateTime("2025-11-20T10:00");
+            report.setRating("5");
+            report.setSubmissionTime("2025-11-20T10:30:00Z");
+            report.setSamplesGiven(new ArrayList<>(List.of(sample("P001", 1), sample("P002", 2))));
+            reports.add(report);
+        }
+        dcrRepository.saveAll(reports);
+    }
+
+    private static DcrSampleItemRequest sampleRequest(String productId, int quantity) {
+        return new DcrSampleItemRequest(productId, "Product " + productId, quantity);
+    }
+
+    private static DcrSampleItem sample(String productId, int quantity) {
+        DcrSampleItem item = new DcrSampleItem();
+        item.setProductId(productId);
+        item.setProductName("Product " + productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,236 @@
+package com.kavyapharm.farmatrack.mrstock.service;
+
+import com.kavyapharm.farmatrack.mrstock.dto.MrStockTotalResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.UpdateMrStockItemRequest;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovementType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.kavyapharm.farmatrack.mrstock.service.StockOwner.CENTRAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MrStockServiceTest {
+
+    private static final String PRODUCT_ID = "P001";
+    private static final int THREADS = 64;
+
+    @Autowired
+    private MrStockService mrStockService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void adjustStock_ConcurrentDeductionsAreExact() throws Exception {
+        int perThread = 50;
+        setStock(THREADS * perThread + 123);
+
+        AtomicInteger failures = new AtomicInteger();
+        runConcurrently(perThread, () -> {
+            try {
+                mrStockService.adjustStockOrThrow(CENTRAL, PRODUCT_ID, -1, StockMovementType.ADJUSTMENT, null);
+            } catch (IllegalArgumentException e) {
+                failures.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, failures.get());
+        assertEquals(123, mrStockService.get(CENTRAL, PRODUCT_ID).stock());
+    }
+
+    @Test
+    void adjustStock_ConcurrentMixedDeltasAreExact() throws Exception {
+        setStock(1000);
+
+        AtomicInteger counter = new AtomicInteger();
+        runConcurrently(40, () -> mrStockService.adjustStockOrThrow(CENTRAL, PRODUCT_ID, counter.incrementAndGet() % 2 == 0 ? 3 : -2, StockMovementType.ADJUSTMENT, null));
+
+        // 64 * 40 adjustments, half +3 and half -2.
+        assertEquals(1000 + (THREADS * 40 / 2), mrStockService.get(CENTRAL, PRODUCT_ID).stock());
+    }
+
+    @Test
+    void adjustStock_NeverGoesNegativeUnderContention() throws Exception {
+        setStock(100);
+
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        runConcurrently(5, () -> {
+            try {
+                mrStockService.adjustStockOrThrow(CENTRAL, PRODUCT_ID, -1, StockMovementType.ADJUSTMENT, null);
+                successes.incrementAndGet();
+            } catch (IllegalArgumentException e) {
+                rejections.incrementAndGet();
+            }
+        });
+
+        assertEquals(100, successes.get());
+        assertEquals(THREADS * 5 - 100, rejections.get());
+        assertEquals(0, mrStockService.get(CENTRAL, PRODUCT_ID).stock());
+    }
+
+    @Test
+    void adjustBatch_AppliesAllDeltasInOneUpdate() {
+        setStock(50);
+        mrStockService.update(CENTRAL, "P002", new UpdateMrStockItemRequest("Product Y Syrup (100ml)", 50));
+        mrStockService.update(CENTRAL, "P003", new UpdateMrStockItemRequest("Product Z Cream", 50));
+
+        statistics.clear();
+        mrStockService.adjustBatch(CENTRAL, Map.of(PRODUCT_ID, -10, "P002", 5, "P003", -50), "DCR:1");
+
+        // Row lock, batched update, one batched ledger insert.
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(40, mrStockService.get(CENTRAL, PRODUCT_ID).stock());
+        assertEquals(55, mrStockService.get(CENTRAL, "P002").stock());
+        assertEquals(0, mrStockService.get(CENTRAL, "P003").stock());
+    }
+
+    @Test
+    void adjustBatch_MrBatchLocksOnlyTheirOwnRows() {
+        StockOwner mr = new StockOwner(104L, "West");
+        mrStockService.receive(mr, PRODUCT_ID, 10, "STOCK_RECEIVED:1");
+        mrStockService.receive(mr, "P002", 10, "STOCK_RECEIVED:1");
+        int central = mrStockService.get(CENTRAL, PRODUCT_ID).stock();
+
+        statistics.clear();
+        mrStockService.adjustBatch(mr, Map.of(PRODUCT_ID, -4, "P002", -10), "DCR:1");
+
+        // Same three statements as a central batch: no row provisioning and no central rows on the way.
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(6, mrStockService.get(mr, PRODUCT_ID).stock());
+        assertEquals(0, mrStockService.get(mr, "P002").stock());
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> mrStockService.adjustBatch(mr, Map.of(PRODUCT_ID, -7), "DCR:2"));
+        assertEquals("Insufficient stock for product " + PRODUCT_ID, ex.getMessage());
+        assertEquals(6, mrStockService.get(mr, PRODUCT_ID).stock());
+        assertEquals(central, mrStockService.get(CENTRAL, PRODUCT_ID).stock());
+    }
+
+    @Test
+    void adjustBatch_IsAllOrNothing() {
+        setStock(50);
+        mrStockService.update(CENTRAL, "P002", new UpdateMrStockItemRequest("Product Y Syrup (100ml)", 5));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> mrStockService.adjustBatch(CENTRAL, Map.of(PRODUCT_ID, -10, "P002", -6), "DCR:1"));
+
+        assertEquals("Insufficient stock for product P002", ex.getMessage());
+        assertEquals(50, mrStockService.get(CENTRAL, PRODUCT_ID).stock());
+        assertEquals(5, mrStockService.get(CENTRAL, "P002").stock());
+    }
+
+    @Test
+    void adjustStock_UnknownProduct() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> mrStockService.adjustStockOrThrow(CENTRAL, "P999", 1, StockMovementType.ADJUSTMENT, null));
+        assertEquals("Stock item not found", ex.getMessage());
+    }
+
+    @Test
+    void partitions_EachMrAdjustsOwnRowAndTotalsRollUp() throws Exception {
+        List<StockOwner> owners = List.of(new StockOwner(101L, "North"), new StockOwner(102L, "North"), new StockOwner(103L, "South"));
+        owners.forEach(owner -> mrStockService.receive(owner, "P900", 1000, "STOCK_RECEIVED:1"));
+
+        AtomicInteger counter = new AtomicInteger();
+        runConcurrently(3, () -> mrStockService.adjustStockOrThrow(
+                owners.get(counter.getAndIncrement() % 3), "P900", -1, StockMovementType.SAMPLE_GIVEN, "DCR:1"));
+
+        // 64 * 3 deductions spread round-robin: 64 per MR, none leaking into another partition.
+        owners.forEach(owner -> assertEquals(936, mrStockService.get(owner, "P900").stock()));
+        assertThrows(IllegalArgumentException.class, () -> mrStockService.get(CENTRAL, "P900"));
+        assertThrows(IllegalArgumentException.class,
+                () -> mrStockService.adjustStockOrThrow(owners.get(0), "P900", -937, StockMovementType.SAMPLE_GIVEN, "DCR:2"));
+
+        MrStockTotalResponse all = total(mrStockService.totals(null));
+        assertEquals(3 * 936, all.totalStock());
+        assertEquals(3, all.holders());
+        MrStockTotalResponse north = total(mrStockService.totals("North"));
+        assertEquals(2 * 936, north.totalStock());
+        assertEquals(2, north.holders());
+    }
+
+    @Test
+    void migrateLegacyStock_CopiesSharedBalancesIntoCentralOnce() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table app_mr_stock (id varchar(20) primary key, name varchar(255) not null, stock int not null)");
+            statement.execute("insert into app_mr_stock values ('P801', 'Legacy Tablet', 42), ('P802', 'Legacy Syrup', 7)");
+        }
+        try {
+            assertEquals(2, mrStockService.migrateLegacyStock());
+            mrStockService.adjustStockOrThrow(CENTRAL, "P801", -2, StockMovementType.ADJUSTMENT, null);
+
+            // A later start finds the rows already in the central pool and leaves current balances alone.
+            assertEquals(0, mrStockService.migrateLegacyStock());
+            assertEquals(40, mrStockService.get(CENTRAL, "P801").stock());
+            assertEquals("Legacy Syrup", mrStockService.get(CENTRAL, "P802").name());
+            assertEquals(7, mrStockService.get(CENTRAL, "P802").stock());
+        } finally {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("drop table app_mr_stock");
+            }
+        }
+        assertEquals(0, mrStockService.migrateLegacyStock());
+    }
+
+    private static MrStockTotalResponse total(List<MrStockTotalResponse> totals) {
+        return totals.stream().filter(t -> t.productId().equals("P900")).findFirst().orElseThrow();
+    }
+
+    private void setStock(int stock) {
+        mrStockService.update(CENTRAL, PRODUCT_ID, new UpdateMrStockItemRequest("Product X (500mg)", stock));
+    }
+
+    private void runConcurrently(int iterationsPerThread, Runnable action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterationsPerThread; i++) {
+                        action.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.kavyapharm.farmatrack.mrstock.service;
+
+import com.kavyapharm.farmatrack.common.IdGenerator;
+import com.kavyapharm.farmatrack.mrstock.dto.StockMovementPageResponse;
+import com.kavyapharm.farmatrack.mrstock.dto.StockMovementResponse;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovement;
+import com.kavyapharm.farmatrack.mrstock.model.StockMovementType;
+import com.kavyapharm.farmatrack.mrstock.repository.MrStockRepository;
+import com.kavyapharm.farmatrack.mrstock.repository.StockMovementRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.kavyapharm.farmatrack.mrstock.service.StockOwner.CENTRAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Expects the freshly seeded stock and its opening movements, so it never shares a context other tests have written to.
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+class StockLedgerServiceTest {
+
+    private static final String PRODUCT_ID = "P004";
+
+    @Autowired
+    private MrStockService mrStockService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private MrStockRepository mrStockRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void balances_MatchStockNowAndAsOfEarlierInstants() throws Exception {
+        // Seeded row got its opening movement at startup.
+        assertEquals(100, stockLedgerService.balanceAt(CENTRAL, PRODUCT_ID, Instant.now()).balance());
+
+        adjustConcurrently(8, 25);
+        mrStockService.adjustBatch(CENTRAL, Map.of(PRODUCT_ID, -7), "DCR:1");
+        assertTrue(stockLedgerService.takeSnapshots() > 0);
+        mrStockService.adjustStockOrThrow(CENTRAL, PRODUCT_ID, 4, StockMovementType.RECEIPT, "STOCK_RECEIVED:1");
+
+        Thread.sleep(5);
+        Instant checkpoint = Instant.now();
+        int stockAtCheckpoint = mrStockService.get(CENTRAL, PRODUCT_ID).stock();
+        Thread.sleep(5);
+
+        adjustConcurrently(8, 25);
+        mrStockService.adjustBatch(CENTRAL, Map.of(PRODUCT_ID, 3), "DCR:1");
+        stockLedgerService.takeSnapshots();
+        mrStockService.adjustStockOrThrow(CENTRAL, PRODUCT_ID, -2, StockMovementType.ADJUSTMENT, null);
+
+        int stockNow = mrStockService.get(CENTRAL, PRODUCT_ID).stock();
+        assertEquals(100 + 200 - 7 + 4, stockAtCheckpoint);
+        assertEquals(stockAtCheckpoint + 200 + 3 - 2, stockNow);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(stockAtCheckpoint, stockLedgerService.balanceAt(CENTRAL, PRODUCT_ID, checkpoint).balance());
+        // Existence check, latest snapshot before the instant, sum of the movements after it.
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        assertEquals(stockNow, stockLedgerService.balanceAt(CENTRAL, PRODUCT_ID, Instant.now()).balance());
+        assertEquals(stockNow, stockLedgerService.balanceAt(CENTRAL, PRODUCT_ID, null).balance());
+        assertEquals(0, stockLedgerService.balanceAt(CENTRAL, PRODUCT_ID, Instant.parse("2024-06-01T00:00:00Z")).balance());
+    }
+
+    @Test
+    void balances_KeepMovementsWhoseIdsAreBelowAnEarlierSnapshot() {
+        mrStockService.adjustStockOrThrow(CENTRAL, "P002", 5, StockMovementType.RECEIPT, null);
+        assertTrue(stockLedgerService.takeSnapshots() > 0);
+
+        // Another instance with a clock a minute slow records a movement after the snapshot.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            mrStockRepository.adjustStock(CENTRAL.mrId(), "P002", 3);
+            StockMovement movement = new StockMovement();
+            movement.setId(IdGenerator.firstIdAt(Instant.now().minusSeconds(60)) + 1);
+            movement.setMrId(CENTRAL.mrId());
+            movement.setProductId("P002");
+            movement.setDelta(3);
+            movement.setType(StockMovementType.RECEIPT);
+            movement.setOccurredAt(Instant.now());
+            movementRepository.save(movement);
+        });
+        int stock = mrStockService.get(CENTRAL, "P002").stock();
+        assertEquals(100 + 5 + 3, stock);
+
+        assertEquals(stock, stockLedgerService.balanceAt(CENTRAL, "P002", Instant.now()).balance());
+        assertTrue(stockLedgerService.takeSnapshots() > 0);
+        assertEquals(stock, stockLedgerService.balanceAt(CENTRAL, "P002", Instant.now()).balance());
+    }
+
+    @Test
+    void openingBalances_RecordedOnceThenSkippedWithoutScanning() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(0, stockLedgerService.recordOpeningBalances());
+        // Only the marker claim; the locking scan for rows without movements ran on the first start.
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void movements_AreTypedAndPagedNewestFirst() {
+        mrStockService.adjustStockOrThrow(CENTRAL, "P003", 10, StockMovementType.RECEIPT, "STOCK_RECEIVED:9");
+        mrStockService.adjustBatch(CENTRAL, Map.of("P003", -4), "DCR:9");
+        mrStockService.adjustBatch(CENTRAL, Map.of("P003", 1), "DCR:9");
+
+        StockMovementPageResponse first = stockLedgerService.page(CENTRAL, "P003", null, 2);
+        StockMovementPageResponse second = stockLedgerService.page(CENTRAL, "P003", first.nextCursor(), 2);
+
+        assertEquals(List.of(StockMovementType.REFUND, StockMovementType.SAMPLE_GIVEN),
+                first.items().stream().map(StockMovementResponse::type).toList());
+        assertEquals(List.of(StockMovementType.RECEIPT, StockMovementType.ADJUSTMENT),
+                second.items().stream().map(StockMovementResponse::type).toList());
+        assertEquals("STOCK_RECEIVED:9", second.items().get(0).reference());
+        assertEquals(StockLedgerService.OPENING_BALANCE, second.items().get(1).reference());
+        assertEquals(100, second.items().get(1).delta());
+    }
+
+    private void adjustConcurrently(int threads, int iterationsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < iterationsPerThread; i++) {
+                        mrStockService.adjustStockOrThrow(CENTRAL, PRODUCT_ID, 2, StockMovementType.RECEIPT, null);
+                        mrStockService.adjustStockOrThrow(CENTRAL, PRODUCT_ID, -1, StockMovementType.SAMPLE_GIVEN, null);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.kavyapharm.farmatrack.mrstock.service;
+
+import com.kavyapharm.farmatrack.security.CustomUserDetails;
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockOwnerResolverTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private StockOwnerResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        resolver = new StockOwnerResolver(userRepository);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(7L, UserRole.MR, "North")));
+        when(userRepository.findById(8L)).thenReturn(Optional.of(user(8L, UserRole.DOCTOR, null)));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resolve_OnlyManagersAndAdminsMayNameAnMr() {
+        for (UserRole role : new UserRole[]{UserRole.SUPERADMIN, UserRole.ADMIN, UserRole.MANAGER}) {
+            signIn(user(1L, role, null));
+            assertEquals(new StockOwner(7L, "North"), resolver.resolve(7L));
+        }
+        for (UserRole role : new UserRole[]{UserRole.DOCTOR, UserRole.HR}) {
+            signIn(user(1L, role, null));
+            assertThrows(AccessDeniedException.class, () -> resolver.resolve(7L));
+            assertEquals(StockOwner.CENTRAL, resolver.resolve(null));
+        }
+    }
+
+    @Test
+    void resolve_MrsAlwaysGetTheirOwnStockAndNamedIdsMustBeMrs() {
+        signIn(user(7L, UserRole.MR, "North"));
+        assertEquals(new StockOwner(7L, "North"), resolver.resolve(99L));
+
+        signIn(user(1L, UserRole.MANAGER, null));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(8L));
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve(99L));
+    }
+
+    @Test
+    void issueTarget_NeverAnMrAndAlwaysNamed() {
+        signIn(user(7L, UserRole.MR, "North"));
+        assertThrows(AccessDeniedException.class, () -> resolver.issueTarget(7L));
+
+        signIn(user(1L, UserRole.MANAGER, null));
+        assertEquals(new StockOwner(7L, "North"), resolver.issueTarget(7L));
+        assertThrows(IllegalArgumentException.class, () -> resolver.issueTarget(null));
+        assertThrows(IllegalArgumentException.class, () -> resolver.issueTarget(8L));
+    }
+
+    @Test
+    void of_CarriesTheStoredMrsTerritory() {
+        assertEquals(new StockOwner(7L, "North"), resolver.of(7L));
+        assertEquals(new StockOwner(99L, null), resolver.of(99L));
+        assertEquals(StockOwner.CENTRAL, resolver.of(null));
+    }
+
+    private static User user(long id, UserRole role, String territory) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setRole(role);
+        user.setTerritory(territory);
+        return user;
+    }
+
+    private static void signIn(User user) {
+        CustomUserDetails details = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities()));
+    }
+}
@@ -0,0 +1,203 @@
+package com.kavyapharm.farmatrack.notification.controller;
+
+import com.kavyapharm.farmatrack.notification.dto.CreateNotificationRequest;
+import com.kavyapharm.farmatrack.notification.dto.NotificationStreamEvent;
+import com.kavyapharm.farmatrack.notification.service.NotificationService;
+import com.kavyapharm.farmatrack.notification.service.NotificationStreamHub;
+import com.kavyapharm.farmatrack.security.TestTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"notifications.stream.heartbeat-ms=200", "notifications.stream.send-timeout-ms=2000",
+                "notifications.stream.buffer-size=256", "notifications.stream.writer-threads=2"})
+class NotificationStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestTokens testTokens;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationStreamHub streamHub;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        token = testTokens.manager("stream.viewer@example.com", "Stream Viewer");
+    }
+
+    @Test
+    void stream_DeliversCreatedNotificationsAndHeartbeats() throws Exception {
+        HttpResponse<Stream<String>> response = open(token);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+        Iterator<String> lines = response.body().iterator();
+
+        assertEquals(":heartbeat", nextNonBlank(lines));
+        assertEquals(1, streamHub.connectionCount());
+
+        notificationService.create(new CreateNotificationRequest("Stock low", "Paracetamol below threshold", "Alert", null, null, null));
+
+        String line;
+        do {
+            line = nextNonBlank(lines);
+        } while (line.equals(":heartbeat"));
+        assertEquals("event:notification", line);
+        String data = nextNonBlank(lines);
+        assertTrue(data.startsWith("data:"));
+        assertTrue(data.contains("\"action\":\"created\""));
+        assertTrue(data.contains("\"title\":\"Stock low\""));
+
+        // Heartbeats keep flowing with no notification traffic.
+        assertEquals(":heartbeat", nextNonBlank(lines));
+
+        response.body().close();
+    }
+
+    @Test
+    void stream_ClientsThatNeverReadDoNotStallOthers() throws Exception {
+        List<Socket> stalled = new ArrayList<>();
+        try {
+            // More stalled clients than writer threads: the reader is only served once the hub gives up on their blocked
+            // writes. The connector keeps its default timeout, far longer than this test waits.
+            for (int i = 0; i < 3; i++) {
+                stalled.add(openWithoutReading(token));
+            }
+            awaitConnections(3);
+            HttpResponse<Stream<String>> response = open(token);
+            Iterator<String> lines = response.body().iterator();
+            assertEquals(":heartbeat", nextNonBlank(lines));
+
+            // Far more than the non-reading clients' socket buffers hold, so their writes block; the buffer is sized
+            // to take the whole burst, so they are dropped by the send timeout rather than by overflow.
+            String padding = "x".repeat(128 * 1024);
+            for (int i = 0; i < 128; i++) {
+                streamHub.publish(new NotificationStreamEvent("updated", padding, null, i));
+            }
+            streamHub.publish(new NotificationStreamEvent("updated", "marker", null, 0));
+
+            String line;
+            do {
+                line = nextNonBlank(lines);
+            } while (!line.contains("\"id\":\"marker\""));
+            awaitConnections(1);
+
+            response.body().close();
+            awaitConnections(0);
+        } finally {
+            for (Socket socket : stalled) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    void stream_RequiresAuthentication() throws Exception {
+        HttpResponse<Stream<String>> response = open(null);
+        assertEquals(403, response.statusCode());
+        response.body().close();
+    }
+
+    @Test
+    void stream_AcceptsAStreamTokenInTheQuery() throws Exception {
+        HttpResponse<String> issued = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/notifications/stream-token"))
+                        .header("Authorization", "Bearer " + token)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, issued.statusCode());
+        String streamToken = issued.body().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+
+        HttpResponse<Stream<String>> response = openWithQueryToken(streamToken);
+        assertEquals(200, response.statusCode());
+        assertEquals(":heartbeat", nextNonBlank(response.body().iterator()));
+        response.body().close();
+
+        // A login token in the URL is refused, and the stream token opens nothing else.
+        HttpResponse<Stream<String>> rejected = openWithQueryToken(token);
+        assertEquals(403, rejected.statusCode());
+        rejected.body().close();
+        HttpResponse<String> misused = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/notifications/unread-count"))
+                        .header("Authorization", "Bearer " + streamToken)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(403, misused.statusCode());
+    }
+
+    private HttpResponse<Stream<String>> openWithQueryToken(String streamToken) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/notifications/stream?access_token=" + streamToken))
+                .header("Accept", "text/event-stream")
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+    }
+
+    private HttpResponse<Stream<String>> open(String bearer) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/notifications/stream"))
+                .header("Accept", "text/event-stream");
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofLines());
+    }
+
+    private Socket openWithoutReading(String bearer) throws Exception {
+        Socket socket = new Socket();
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress("localhost", port));
+        OutputStream out = socket.getOutputStream();
+        out.write(("GET /api/notifications/stream HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n"
+                + "Authorization: Bearer " + bearer + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return socket;
+    }
+
+    private void awaitConnections(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (streamHub.connectionCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, streamHub.connectionCount());
+    }
+
+    private static String nextNonBlank(Iterator<String> lines) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (!line.isBlank()) {
+                    return line;
+                }
+            }
+            throw new IllegalStateException("stream closed");
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
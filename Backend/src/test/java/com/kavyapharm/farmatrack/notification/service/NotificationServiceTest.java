@@ -0,0 +1,162 @@
+package com.kavyapharm.farmatrack.notification.service;
+
+import com.kavyapharm.farmatrack.notification.dto.CreateNotificationRequest;
+import com.kavyapharm.farmatrack.notification.dto.NotificationPageResponse;
+import com.kavyapharm.farmatrack.notification.dto.NotificationResponse;
+import com.kavyapharm.farmatrack.notification.dto.UpdateNotificationRequest;
+import com.kavyapharm.farmatrack.notification.model.Notification;
+import com.kavyapharm.farmatrack.notification.repository.NotificationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class NotificationServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository.deleteAll();
+        unreadCounter.resync();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void create_InsertsWithoutProbingForFreeIds() {
+        // More than the 1000 ids the old random three-digit scheme could ever hand out.
+        int count = 1_500;
+        Set<String> ids = new HashSet<>();
+
+        statistics.clear();
+        for (int i = 0; i < count; i++) {
+            ids.add(notificationService.create(new CreateNotificationRequest("Title " + i, "Message", "System", null, null, null)).id());
+        }
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(count, ids.size());
+        assertEquals(count, notificationRepository.count());
+        // The insert plus one unread counter slot increment in the same transaction; never a lookup for a free id.
+        assertEquals(2L * count, statements);
+    }
+
+    @Test
+    void page_WalksDateIdKeysetWithFilters() {
+        LocalDate today = LocalDate.now();
+        List<Notification> rows = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Notification n = new Notification();
+            n.setId(String.format("T%03d", i));
+            n.setTitle("Title " + i);
+            n.setMessage("Message");
+            n.setType(i % 2 == 0 ? "System" : "Alert");
+            n.setDate(today.minusDays(i % 4));
+            n.setStatus(i % 3 == 0 ? "Read" : "Unread");
+            n.setPriority("Normal");
+            rows.add(n);
+        }
+        notificationRepository.saveAll(rows);
+
+        List<NotificationResponse> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            NotificationPageResponse page = notificationService.page(cursor, 4, "Unread", "System", null);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        List<NotificationResponse> expected = notificationService.list().stream()
+                .filter(n -> n.status().equals("Unread") && n.type().equals("System"))
+                .toList();
+        assertEquals(expected, seen);
+        assertFalse(seen.isEmpty());
+    }
+
+    @Test
+    void page_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> notificationService.page("not-a-cursor", 10, null, null, null));
+    }
+
+    @Test
+    void unreadCount_ReadFromCounterRowWithoutCounting() {
+        NotificationResponse first = notificationService.create(new CreateNotificationRequest("A", "M", "System", null, null, null));
+        notificationService.create(new CreateNotificationRequest("B", "M", "System", null, "Read", null));
+        NotificationResponse third = notificationService.create(new CreateNotificationRequest("C", "M", "System", null, null, null));
+
+        statistics.clear();
+        assertEquals(2, notificationService.unreadCount());
+        // One primary-key read of the counter row, however many notifications exist.
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        notificationService.update(first.id(), new UpdateNotificationRequest("A", "M", "System", null, "Read", "Normal"));
+        assertEquals(1, notificationService.unreadCount());
+
+        notificationService.delete(third.id());
+        assertEquals(0, notificationService.unreadCount());
+
+        unreadCounter.resync();
+        assertEquals(0, notificationService.unreadCount());
+    }
+
+    @Test
+    void unreadCount_ExactUnderConcurrentWritesAndRecounts() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        NotificationResponse created = notificationService.create(
+                                new CreateNotificationRequest("T" + thread, "M", "System", null, null, null));
+                        if (i % 5 == 0) {
+                            notificationService.update(created.id(), new UpdateNotificationRequest("T", "M", "System", null, "Read", "Normal"));
+                        }
+                        if (thread == 0) {
+                            unreadCounter.resync();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8 * 20, notificationService.unreadCount());
+        assertEquals(notificationRepository.countByStatus("Unread"), notificationService.unreadCount());
+    }
+}
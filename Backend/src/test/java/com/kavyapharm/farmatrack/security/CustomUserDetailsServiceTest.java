@@ -0,0 +1,105 @@
+package com.kavyapharm.farmatrack.security;
+
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void loadUserByUsername_ServesRepeatLookupsFromCache() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, 60, 100);
+        when(userRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(user("mr@example.com")));
+
+        UserDetails first = service.loadUserByUsername("mr@example.com");
+        UserDetails second = service.loadUserByUsername("MR@example.com");
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByEmailIgnoreCase(anyString());
+    }
+
+    @Test
+    void evict_ForcesReload() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, 60, 100);
+        when(userRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(user("mr@example.com")));
+
+        service.loadUserByUsername("mr@example.com");
+        service.evict("mr@example.com");
+        service.loadUserByUsername("mr@example.com");
+
+        verify(userRepository, times(2)).findByEmailIgnoreCase(anyString());
+    }
+
+    @Test
+    void loadUserByUsername_ZeroTtlDisablesCache() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, 0, 100);
+        when(userRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(user("mr@example.com")));
+
+        service.loadUserByUsername("mr@example.com");
+        service.loadUserByUsername("mr@example.com");
+
+        verify(userRepository, times(2)).findByEmailIgnoreCase(anyString());
+    }
+
+    @Test
+    void loadUserByUsername_UnknownUserIsNotCached() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, 60, 100);
+        when(userRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost@example.com"));
+
+        verify(userRepository, times(2)).findByEmailIgnoreCase(anyString());
+    }
+
+    @Test
+    void loadUserByUsername_CachesASnapshotNotTheEntity() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, 60, 100);
+        User user = user("mr@example.com");
+        user.setTerritory("North");
+        when(userRepository.findByEmailIgnoreCase(anyString())).thenReturn(Optional.of(user));
+
+        service.loadUserByUsername("mr@example.com");
+        user.setRole(UserRole.ADMIN);
+        user.setTerritory("South");
+        user.setStatus(UserStatus.INACTIVE);
+
+        CustomUserDetails cached = (CustomUserDetails) service.loadUserByUsername("mr@example.com");
+        assertEquals(1L, cached.getId());
+        assertEquals(UserRole.MR, cached.getRole());
+        assertEquals("North", cached.getTerritory());
+        assertTrue(cached.isEnabled());
+        assertEquals("ROLE_MR", cached.getAuthorities().iterator().next().getAuthority());
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.MR);
+        user.setStatus(UserStatus.ACTIVE);
+        return user;
+    }
+}
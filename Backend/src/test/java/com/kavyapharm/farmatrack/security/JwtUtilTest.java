@@ -0,0 +1,94 @@
+package com.kavyapharm.farmatrack.security;
+
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    @Test
+    void extractUsername_CachesVerifiedSubject() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken(userDetails("mr@example.com"));
+
+        assertEquals("mr@example.com", jwtUtil.extractUsername(token));
+        assertEquals("mr@example.com", jwtUtil.extractUsername(token));
+        assertEquals(1, jwtUtil.verifiedTokens().size());
+    }
+
+    @Test
+    void extractClaim_CannotAlterTheCachedSubject() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken(userDetails("mr@example.com"));
+        jwtUtil.extractUsername(token);
+
+        jwtUtil.extractClaim(token, claims -> claims.setSubject("admin@example.com"));
+
+        assertEquals("mr@example.com", jwtUtil.extractUsername(token));
+    }
+
+    @Test
+    void extractUsername_RejectsTamperedToken() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken(userDetails("mr@example.com"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.extractUsername(tampered));
+        assertEquals(0, jwtUtil.verifiedTokens().size());
+    }
+
+    @Test
+    void extractUsername_RejectsExpiredToken() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, -1_000, 100);
+        String token = jwtUtil.generateToken(userDetails("mr@example.com"));
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.extractUsername(token));
+        assertFalse(jwtUtil.isTokenValid(token, userDetails("mr@example.com")));
+    }
+
+    @Test
+    void verifiedTokenCache_IsBounded() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 2);
+        for (int i = 0; i < 5; i++) {
+            jwtUtil.extractUsername(jwtUtil.generateToken(userDetails("mr" + i + "@example.com")));
+        }
+
+        assertTrue(jwtUtil.verifiedTokens().size() <= 2);
+    }
+
+    @Test
+    void isTokenValid_ChecksSubject() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateToken(userDetails("mr@example.com"));
+
+        assertTrue(jwtUtil.isTokenValid(token, userDetails("mr@example.com")));
+        assertFalse(jwtUtil.isTokenValid(token, userDetails("other@example.com")));
+    }
+
+    @Test
+    void streamToken_OnlyWorksForTheStream() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String streamToken = jwtUtil.generateStreamToken(userDetails("mr@example.com"));
+        String loginToken = jwtUtil.generateToken(userDetails("mr@example.com"));
+
+        assertEquals("mr@example.com", jwtUtil.extractStreamUsername(streamToken));
+        assertThrows(JwtException.class, () -> jwtUtil.extractUsername(streamToken));
+        assertThrows(JwtException.class, () -> jwtUtil.extractStreamUsername(loginToken));
+        assertEquals(0, jwtUtil.verifiedTokens().size());
+    }
+
+    private static CustomUserDetails userDetails(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setRole(UserRole.MR);
+        user.setStatus(UserStatus.ACTIVE);
+        return new CustomUserDetails(user);
+    }
+}
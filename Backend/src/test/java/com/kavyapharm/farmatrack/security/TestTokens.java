@@ -0,0 +1,35 @@
+package com.kavyapharm.farmatrack.security;
+
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
+import com.kavyapharm.farmatrack.user.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+// Shared fixture for controller tests that only need a signed-in manager.
+@Component
+public class TestTokens {
+
+    private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final JwtUtil jwtUtil;
+
+    public TestTokens(UserRepository userRepository, CustomUserDetailsService userDetailsService, JwtUtil jwtUtil) {
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    public String manager(String email, String name) {
+        if (userRepository.findByEmailIgnoreCase(email).isEmpty()) {
+            User user = new User();
+            user.setName(name);
+            user.setEmail(email);
+            user.setPasswordHash("unused");
+            user.setRole(UserRole.MANAGER);
+            user.setStatus(UserStatus.ACTIVE);
+            userRepository.save(user);
+        }
+        return jwtUtil.generateToken(userDetailsService.loadUserByUsername(email));
+    }
+}
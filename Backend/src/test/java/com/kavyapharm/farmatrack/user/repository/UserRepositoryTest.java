@@ -0,0 +1,75 @@
+package com.kavyapharm.farmatrack.user.repository;
+
+import com.kavyapharm.farmatrack.user.model.User;
+import com.kavyapharm.farmatrack.user.model.UserRole;
+import com.kavyapharm.farmatrack.user.model.UserStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByEmailIgnoreCase_MatchesAnyCase() {
+        userRepository.save(user("Mixed.Case@Example.com"));
+
+        assertTrue(userRepository.findByEmailIgnoreCase("mixed.case@example.COM").isPresent());
+        assertTrue(userRepository.existsByEmailIgnoreCase(" MIXED.CASE@EXAMPLE.COM "));
+        assertFalse(userRepository.existsByEmailIgnoreCase("other@example.com"));
+    }
+
+    @Test
+    void backfillEmailNormalized_FillsLegacyRows() {
+        userRepository.save(user("Legacy@Example.com"));
+        jdbcTemplate.update("update app_user set email_normalized = null");
+
+        assertEquals(1, userRepository.backfillEmailNormalized());
+        assertTrue(userRepository.findByEmailIgnoreCase("legacy@example.com").isPresent());
+    }
+
+    @Test
+    void emailLookup_SeeksIndex() {
+        String plan = explain("select id from app_user where email_normalized = 'mr@example.com'");
+        assertTrue(plan.matches("(?s).*UK_USER_EMAIL_NORMALIZED\\w*: EMAIL_NORMALIZED = .*"), plan);
+
+        // The old upper(email) = upper(?) predicate can at best scan an index end to end, never seek into it.
+        String legacyPlan = explain("select id from app_user where upper(email) = upper('mr@example.com')");
+        assertFalse(legacyPlan.contains(": EMAIL"), legacyPlan);
+    }
+
+    @Test
+    void doctorEmailLookup_SeeksIndex() {
+        String plan = explain("select id from app_doctor where email_normalized = 'dr@example.com'");
+        assertTrue(plan.matches("(?s).*IDX_DOCTOR_EMAIL_NORMALIZED\\w*: EMAIL_NORMALIZED = .*"), plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setName("Test User");
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.MR);
+        user.setStatus(UserStatus.ACTIVE);
+        return user;
+    }
+}
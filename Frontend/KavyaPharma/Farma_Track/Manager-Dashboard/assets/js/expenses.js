@@ -131,6 +131,19 @@
       .replace(/>/g, "&gt;")
       .replace(/"/g, "&quot;");
   }
+  // Content-addressed receipt photos ("ab/cd/<sha256>.jpg") have server-side thumbnail/preview variants
+  function attachmentHtml(a) {
+    if (/^https?:\/\//i.test(a)) {
+      return `<div>${esc(a)} <a class="attachment-link" href="${esc(a)}" target="_blank" rel="noopener">[View file]</a></div>`;
+    }
+    const href = `assets/uploads/${a}`;
+    if (/^[0-9a-f]{2}\/[0-9a-f]{2}\/[0-9a-f]{64}\.(jpe?g|png|gif|bmp)$/.test(a)) {
+      return `<div><a href="${esc(href)}?variant=preview" target="_blank" rel="noopener">` +
+        `<img src="${esc(href)}?variant=thumb" alt="Receipt" loading="lazy" class="img-thumbnail" style="max-width:160px"></a> ` +
+        `<a class="attachment-link" href="${esc(href)}" target="_blank" rel="noopener">[Original]</a></div>`;
+    }
+    return `<div>${esc(a)} <a class="attachment-link" href="${esc(href)}" target="_blank" rel="noopener">[View file]</a></div>`;
+  }
   function fmtDate(d) {
     if (!d) return "-";
     // keep only date (no time)
@@ -562,9 +575,7 @@
     attList.innerHTML = "";
     if (Array.isArray(exp.attachments) && exp.attachments.length) {
       exp.attachments.forEach((a) => {
-        const name = esc(a);
-        const href = /^https?:\/\//i.test(a) ? a : `assets/uploads/${a}`;
-        attList.innerHTML += `<div>${name} <a class="attachment-link" href="${href}" target="_blank" rel="noopener">[View file]</a></div>`;
+        attList.innerHTML += attachmentHtml(a);
       });
     } else {
       attList.innerHTML = `<div class="text-muted">No attachments</div>`;
@@ -667,12 +678,7 @@
       <p><strong>Description:</strong><br/>${esc(exp.description)}</p>
       ${
         exp.attachments && exp.attachments.length
-          ? `<p><strong>Attachments:</strong><br/>${exp.attachments
-              .map((a) => {
-                const href = /^https?:\/\//i.test(a) ? a : `assets/uploads/${a}`;
-                return `<div>${esc(a)} <a href="${href}" target="_blank" rel="noopener">[View file]</a></div>`;
-              })
-              .join("")}</p>`
+          ? `<p><strong>Attachments:</strong><br/>${exp.attachments.map(attachmentHtml).join("")}</p>`
           : ""
       }
       <hr/>
@@ -25,6 +25,7 @@ function saveData(key, data) {
 const API_BASE = "https://pharma-backend-hxf9.onrender.com";
 const MR_STOCK_API_BASE = `${API_BASE}/api/mr-stock`;
 const STOCK_RECEIVED_API_BASE = `${API_BASE}/api/stock-received`;
+const USERS_API_BASE = `${API_BASE}/api/users`;
 let samplesApiMode = true;
 
 function getAuthHeader() {
@@ -46,6 +47,19 @@ async function apiJson(url, options) {
   return await res.json();
 }
 
+// Issuing stock needs each MR's user id, so the MR list comes from /api/users when it is reachable.
+async function refreshMrsFromApiOrFallback() {
+  try {
+    const users = await apiJson(USERS_API_BASE);
+    if (Array.isArray(users)) {
+      mrData = users.filter(u => u && String(u.role) === "MR").map(u => ({ id: Number(u.id), name: u.name }));
+      saveData("mrData", mrData);
+    }
+  } catch (e) {
+    console.warn("Users API unavailable for MR list.", e);
+  }
+}
+
 async function refreshSamplesFromApiOrFallback() {
   try {
     const stockItems = await apiJson(MR_STOCK_API_BASE);
@@ -717,29 +731,24 @@ document.addEventListener("DOMContentLoaded", () => {
       const sample = samplesData.find((s) => s.productName === productName);
       if (sample && sample.remaining >= quantity) {
         (async function () {
-          if (samplesApiMode && sample.productId) {
+          const mr = mrData.find((m) => m.name === mrName);
+          if (samplesApiMode && sample.productId && mr && mr.id) {
             try {
-              const stockItem = await apiJson(`${MR_STOCK_API_BASE}/${sample.productId}`);
-              const currentStock = Number(stockItem.stock) || 0;
-              const nextStock = currentStock - quantity;
-              if (nextStock < 0) {
-                alert("Insufficient stock!");
-                return;
-              }
-
-              await apiJson(`${MR_STOCK_API_BASE}/${sample.productId}`, {
-                method: "PUT",
-                body: JSON.stringify({
-                  name: stockItem.name,
-                  stock: nextStock,
-                }),
+              // Moves the quantity from central stock into the MR's own stock, which their DCRs draw on.
+              await apiJson(`${MR_STOCK_API_BASE}/${sample.productId}/issue?mrId=${encodeURIComponent(mr.id)}`, {
+                method: "POST",
+                body: JSON.stringify({ quantity: quantity }),
               });
 
               // Keep local MR distribution tracking for UI, but use backend remaining
               sample.distributed += quantity;
-              sample.remaining = nextStock;
+              sample.remaining -= quantity;
               sample.totalStock = sample.remaining + (Number(sample.distributed) || 0);
             } catch (e) {
+              if (/Insufficient stock/i.test(e.message)) {
+                alert("Insufficient stock!");
+                return;
+              }
               console.warn("Distribute API failed. Falling back to localStorage.", e);
               samplesApiMode = false;
             }
@@ -847,7 +856,7 @@ document.addEventListener("DOMContentLoaded", () => {
   profileEmail.textContent = savedEmail;
 
   (async function () {
-    await refreshSamplesFromApiOrFallback();
+    await Promise.all([refreshSamplesFromApiOrFallback(), refreshMrsFromApiOrFallback()]);
     populateDropdowns();
     renderSampleTable(samplesData);
     renderSummaryCards(samplesData);
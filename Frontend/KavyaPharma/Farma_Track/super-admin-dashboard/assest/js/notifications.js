@@ -1094,8 +1094,51 @@ document.addEventListener("DOMContentLoaded", function () {
     });
   }
 
+  // Live updates keep the bell current; EventSource can't send the auth header, so it uses a short-lived stream token
+  let notificationStream = null;
+
+  function applyStreamEvent(event) {
+    const id = String(event.id);
+    allNotifications = allNotifications.filter((n) => String(n.id) !== id);
+    if (event.action !== "deleted" && event.notification) {
+      allNotifications.unshift(normalizeNotificationFromApi(event.notification));
+    }
+    saveNotifications(allNotifications);
+    renderNotifications();
+  }
+
+  async function openNotificationStream() {
+    if (!notificationsApiMode || !window.EventSource) return;
+    try {
+      const issued = await apiJson(`${NOTIFICATIONS_API_BASE}/stream-token`, { method: "POST" });
+      notificationStream = new EventSource(
+        `${NOTIFICATIONS_API_BASE}/stream?access_token=${encodeURIComponent(issued.token)}`
+      );
+      notificationStream.addEventListener("notification", (e) => {
+        try {
+          applyStreamEvent(JSON.parse(e.data));
+        } catch (err) {
+          console.warn("Ignoring malformed notification event.", err);
+        }
+      });
+      // The token expires within a minute, so reconnect with a fresh one instead of the browser's own retry
+      notificationStream.onerror = () => {
+        notificationStream.close();
+        notificationStream = null;
+        setTimeout(async () => {
+          await refreshNotificationsFromApiOrFallback();
+          renderNotifications();
+          openNotificationStream();
+        }, 5000);
+      };
+    } catch (e) {
+      console.warn("Notification stream unavailable.", e);
+    }
+  }
+
   (async function () {
     await refreshNotificationsFromApiOrFallback();
     renderNotifications();
+    openNotificationStream();
   })();
 });